@@ -4,9 +4,12 @@ import com.google.maps.GeoApiContext; // <-- IMPORT ADDED
 import org.springframework.beans.factory.annotation.Value; // <-- IMPORT ADDED
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 @Configuration
 public class ApplicationConfig {
 
@@ -26,4 +29,32 @@ public class ApplicationConfig {
                 .apiKey(apiKey)
                 .build();
     }
+
+    // Bounded pool for blocking Google Maps calls; when it is saturated the caller runs the call itself
+    @Bean(name = "mapsExecutor")
+    public ThreadPoolTaskExecutor mapsExecutor(@Value("${google.maps.executor.pool-size:8}") int poolSize,
+                                               @Value("${google.maps.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("maps-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // Autocomplete lookups get their own small pool so they never compete with ride-offer pricing;
+    // when it is full the lookup is rejected (RemoteLookupGateway reports it as rate limited)
+    @Bean(name = "autocompleteExecutor")
+    public ThreadPoolTaskExecutor autocompleteExecutor(@Value("${remote.autocomplete.executor.pool-size:4}") int poolSize,
+                                                       @Value("${remote.autocomplete.executor.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("autocomplete-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
 }
@@ -0,0 +1,36 @@
+package com.homeride.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so a request's
+ * database round trips can be reported by {@link com.homeride.backend.filter.QueryCountFilter}.
+ */
+@Component
+public class QueryCountInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTER.get()[0]++;
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.session_factory.statement_inspector", this);
+    }
+
+    public void reset() {
+        COUNTER.get()[0] = 0;
+    }
+
+    public int getCount() {
+        return COUNTER.get()[0];
+    }
+}
@@ -2,6 +2,7 @@ package com.homeride.backend.config;
 
 import com.homeride.backend.filter.JwtAuthenticationFilter;
 import com.homeride.backend.service.EmployeeService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,12 +49,17 @@ public class SecurityConfig {
                 .cors(withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Async (CompletableFuture) responses were authorized on the original dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // WebSocket endpoints - MUST BE FIRST
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/app/**").permitAll()
                         .requestMatchers("/topic/**").permitAll()
                         .requestMatchers("/user/**").permitAll()
                         .requestMatchers("/health").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
 
                         // Public endpoints
@@ -1,5 +1,6 @@
 package com.homeride.backend.config;
 
+import com.homeride.backend.service.TokenPrincipalService;
 import com.homeride.backend.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.Message;
@@ -10,19 +11,18 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 @Component
 public class WebSocketInterceptor implements ChannelInterceptor {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final TokenPrincipalService tokenPrincipalService;
 
     @Autowired
-    public WebSocketInterceptor(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public WebSocketInterceptor(JwtUtil jwtUtil, TokenPrincipalService tokenPrincipalService) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenPrincipalService = tokenPrincipalService;
     }
 
     @Override
@@ -35,11 +35,12 @@ public class WebSocketInterceptor implements ChannelInterceptor {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 try {
                     String token = authHeader.substring(7); // Remove "Bearer " prefix
-                    String email = jwtUtil.extractEmail(token);
+                    JwtUtil.TokenClaims claims = jwtUtil.verify(token);
+                    String email = claims.subject();
 
-                    if (email != null && jwtUtil.isTokenValid(token, email)) {
-                        // Load user details
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                    if (email != null && !claims.isExpired()) {
+                        // Principal from the verified claims (see TokenPrincipalService)
+                        UserDetails userDetails = tokenPrincipalService.loadPrincipal(claims);
 
                         // Create authentication token
                         UsernamePasswordAuthenticationToken authentication =
@@ -1,77 +1,78 @@
 package com.homeride.backend.controller;
 
 import com.homeride.backend.dto.ChatMessageDTO;
+import com.homeride.backend.dto.EmployeeSnapshot;
 import com.homeride.backend.model.ChatMessage;
-import com.homeride.backend.model.Employee;
-import com.homeride.backend.model.RideParticipant;
-import com.homeride.backend.model.RideRequest;
-import com.homeride.backend.repository.ChatMessageRepository;
-import com.homeride.backend.repository.EmployeeRepository;
-import com.homeride.backend.repository.RideRequestRepository;
-import com.homeride.backend.service.NotificationService;
+import com.homeride.backend.service.ChatPersistenceService;
+import com.homeride.backend.service.EmployeeCache;
+import com.homeride.backend.service.RideMembershipCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
+import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 public class ChatController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
+
     private final SimpMessagingTemplate messagingTemplate;
-    private final ChatMessageRepository chatMessageRepository;
-    private final EmployeeRepository employeeRepository;
-    private final RideRequestRepository rideRequestRepository;
-    private final NotificationService notificationService;
+    private final EmployeeCache employeeCache;
+    private final ChatPersistenceService chatPersistenceService;
+    private final RideMembershipCache rideMembershipCache;
+    private final Timer deliveryLatency;
 
 
-    public ChatController(SimpMessagingTemplate messagingTemplate, ChatMessageRepository chatMessageRepository, EmployeeRepository employeeRepository, RideRequestRepository rideRequestRepository, NotificationService notificationService) {
+    public ChatController(SimpMessagingTemplate messagingTemplate, EmployeeCache employeeCache, ChatPersistenceService chatPersistenceService, RideMembershipCache rideMembershipCache, MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
-        this.chatMessageRepository = chatMessageRepository;
-        this.employeeRepository = employeeRepository;
-        this.rideRequestRepository = rideRequestRepository;
-        this.notificationService = notificationService;
+        this.employeeCache = employeeCache;
+        this.chatPersistenceService = chatPersistenceService;
+        this.rideMembershipCache = rideMembershipCache;
+        this.deliveryLatency = Timer.builder("chat.delivery.latency")
+                .description("Time from receiving a chat message to broadcasting it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @MessageMapping("/chat.sendMessage")
-    public void sendMessage(@Payload ChatMessageDTO chatMessageDTO) {
-        // Look up the sender's details from the database
-        Employee sender = employeeRepository.findByEmail(chatMessageDTO.getSenderEmail())
+    public void sendMessage(@Payload ChatMessageDTO chatMessageDTO, Principal principal) {
+        long receivedAt = System.nanoTime();
+
+        // The sender is whoever authenticated this WebSocket session; the payload's senderEmail is ignored
+        if (principal == null) {
+            logger.warn("Rejected chat message for ride {}: unauthenticated session", chatMessageDTO.getRideId());
+            return;
+        }
+        EmployeeSnapshot sender = employeeCache.findByEmail(principal.getName())
                 .orElseThrow(() -> new RuntimeException("Sender not found for chat message"));
 
+        // Only the ride's driver and participants may post to its chat
+        if (!rideMembershipCache.isMember(chatMessageDTO.getRideId(), sender.email())) {
+            logger.warn("Rejected chat message from {} for ride {}: not a member", sender.email(), chatMessageDTO.getRideId());
+            return;
+        }
+
         // Convert the DTO to a JPA entity
         ChatMessage chatMessage = new ChatMessage();
-        chatMessage.setSenderName(sender.getName()); // Use retrieved name
-        chatMessage.setSenderEmail(sender.getEmail());
-        chatMessage.setSenderProfilePictureUrl(sender.getProfilePictureUrl()); // Set the profile picture URL
+        chatMessage.setSenderName(sender.name()); // Use retrieved name
+        chatMessage.setSenderEmail(sender.email());
+        chatMessage.setSenderProfilePictureUrl(sender.profilePictureUrl()); // Set the profile picture URL
         chatMessage.setContent(chatMessageDTO.getContent());
         chatMessage.setRideId(chatMessageDTO.getRideId());
         chatMessage.setType(chatMessageDTO.getType());
         chatMessage.setTimestamp(LocalDateTime.now());
 
-        // Save message to database
-        ChatMessage savedMessage = chatMessageRepository.save(chatMessage);
+        // Broadcast to the ride's group topic first; saving and notifying happen on the chat writer thread
+        messagingTemplate.convertAndSend("/topic/ride." + chatMessage.getRideId(), chatMessage);
+        deliveryLatency.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
 
-        // Broadcast the saved message to the ride's group topic
-        messagingTemplate.convertAndSend("/topic/ride." + savedMessage.getRideId(), savedMessage);
-
-        // Create notifications for all ride participants except the sender
-        RideRequest ride = rideRequestRepository.findById(chatMessageDTO.getRideId()).orElse(null);
-        if (ride != null) {
-            String message = "You have a new message in the chat for your ride from " + ride.getOriginCity() + " to " + ride.getDestinationCity();
-            String link = "/ride/" + ride.getId();
-
-            // Notify the driver
-            if (!ride.getRequester().getEmail().equals(chatMessageDTO.getSenderEmail())) {
-                notificationService.createOrUpdateChatNotification(ride.getRequester(), message, link, ride.getId());
-            }
-
-            // Notify participants
-            for (RideParticipant participant : ride.getParticipants()) {
-                if (!participant.getParticipant().getEmail().equals(chatMessageDTO.getSenderEmail())) {
-                    notificationService.createOrUpdateChatNotification(participant.getParticipant(), message, link, ride.getId());
-                }
-            }
-        }
+        chatPersistenceService.submit(chatMessage);
     }
-}
\ No newline at end of file
+}
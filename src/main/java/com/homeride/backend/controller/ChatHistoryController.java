@@ -1,13 +1,18 @@
 package com.homeride.backend.controller;
 
+import com.homeride.backend.dto.ChatHistoryPageDTO;
 import com.homeride.backend.model.ChatMessage;
 import com.homeride.backend.repository.ChatMessageRepository;
+import com.homeride.backend.service.ChatHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -15,15 +20,27 @@ import java.util.List;
 public class ChatHistoryController {
 
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatHistoryService chatHistoryService;
 
     @Autowired
-    public ChatHistoryController(ChatMessageRepository chatMessageRepository) {
+    public ChatHistoryController(ChatMessageRepository chatMessageRepository, ChatHistoryService chatHistoryService) {
         this.chatMessageRepository = chatMessageRepository;
+        this.chatHistoryService = chatHistoryService;
     }
 
+    // Full history, kept for older clients; new clients should page with /history/{rideId}/page
     @GetMapping("/history/{rideId}")
     public ResponseEntity<List<ChatMessage>> getChatHistory(@PathVariable Long rideId) {
         List<ChatMessage> history = chatMessageRepository.findByRideIdOrderByTimestampAsc(rideId);
         return ResponseEntity.ok(history);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/history/{rideId}/page")
+    public ResponseEntity<ChatHistoryPageDTO> getChatHistoryPage(
+            @PathVariable Long rideId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size,
+            Principal principal) {
+        return ResponseEntity.ok(chatHistoryService.getHistoryPage(rideId, principal.getName(), before, size));
+    }
+}
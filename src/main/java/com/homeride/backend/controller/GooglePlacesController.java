@@ -1,5 +1,6 @@
 package com.homeride.backend.controller;
 
+import com.homeride.backend.exception.RateLimitExceededException;
 import com.homeride.backend.service.GooglePlacesService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,8 +9,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/places")
@@ -23,26 +26,32 @@ public class GooglePlacesController {
     }
 
     @GetMapping("/autocomplete")
-    public ResponseEntity<List<String>> getAutocompleteSuggestions(@RequestParam String query) {
-        try {
-            if (query == null || query.trim().isEmpty()) {
-                return ResponseEntity.ok(Collections.emptyList());
-            }
-
-            List<String> suggestions = googlePlacesService.getAutocompleteSuggestions(query);
-
-            // Always return a list, never null
-            if (suggestions == null) {
-                return ResponseEntity.ok(Collections.emptyList());
-            }
-
-            System.out.println("Returning " + suggestions.size() + " suggestions for query: " + query);
-            return ResponseEntity.ok(suggestions);
-        } catch (Exception e) {
-            System.err.println("Error in autocomplete controller: " + e.getMessage());
-
-            // Return empty list instead of error to prevent frontend crashes
-            return ResponseEntity.ok(Collections.emptyList());
+    public CompletableFuture<ResponseEntity<List<String>>> getAutocompleteSuggestions(@RequestParam String query, Principal principal) {
+        if (query == null || query.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(Collections.emptyList()));
         }
+
+        // Anonymous callers are not debounced; they are only held to the upstream rate limit
+        String clientKey = principal != null ? principal.getName() : null;
+        return googlePlacesService.getAutocompleteSuggestions(query, clientKey)
+                .thenApply(suggestions -> {
+                    // Always return a list, never null
+                    if (suggestions == null) {
+                        return ResponseEntity.ok(Collections.<String>emptyList());
+                    }
+
+                    System.out.println("Returning " + suggestions.size() + " suggestions for query: " + query);
+                    return ResponseEntity.ok(suggestions);
+                })
+                .exceptionally(e -> {
+                    // A rejected lookup surfaces as a 503 so the client can back off
+                    if (e.getCause() instanceof RateLimitExceededException rateLimited) {
+                        throw rateLimited;
+                    }
+                    System.err.println("Error in autocomplete controller: " + e.getMessage());
+
+                    // Return empty list instead of error to prevent frontend crashes
+                    return ResponseEntity.ok(Collections.emptyList());
+                });
     }
 }
\ No newline at end of file
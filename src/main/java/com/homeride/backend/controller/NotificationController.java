@@ -1,15 +1,19 @@
 package com.homeride.backend.controller;
 
-import com.homeride.backend.model.Employee;
+import com.homeride.backend.exception.InvalidRequestException;
 import com.homeride.backend.model.Notification;
 import com.homeride.backend.repository.NotificationRepository;
-import com.homeride.backend.service.EmployeeService;
+import com.homeride.backend.service.EmployeeCache;
+import com.homeride.backend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -19,29 +23,50 @@ public class NotificationController {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private EmployeeService employeeService;
+    private EmployeeCache employeeCache;
 
+    @Autowired
+    private NotificationService notificationService;
+
+    // New notifications are pushed to /user/queue/notifications; on (re)connect clients pass the newest
+    // (createdAt, id) they have seen as ?sinceCreatedAt=&sinceId= and receive what they missed, plus a
+    // short overlap before the watermark for late-committing rows, so clients dedupe by id.
+    // A bumped chat notification gets a new createdAt, so it is returned again.
     @GetMapping
-    public ResponseEntity<List<Notification>> getUserNotifications(Principal principal) {
-        Long userId = employeeService.findEmployeeByEmail(principal.getName()).getId();
+    public ResponseEntity<List<Notification>> getUserNotifications(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime sinceCreatedAt,
+            @RequestParam(required = false) Long sinceId,
+            Principal principal) {
+        Long userId = currentUserId(principal);
+        if ((sinceCreatedAt == null) != (sinceId == null)) {
+            throw new InvalidRequestException("sinceCreatedAt and sinceId must be given together");
+        }
+        if (sinceCreatedAt != null) {
+            return ResponseEntity.ok(notificationService.getUnreadSince(userId, sinceCreatedAt, sinceId));
+        }
         return ResponseEntity.ok(notificationRepository.findByUser_IdAndIsReadFalseOrderByCreatedAtDesc(userId));
     }
 
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Principal principal) {
+        return ResponseEntity.ok(Map.of("count", notificationService.getUnreadCount(currentUserId(principal))));
+    }
+
     @PostMapping("/{id}/read")
-    public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        notificationRepository.findById(id).ifPresent(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
+    public ResponseEntity<Void> markAsRead(@PathVariable Long id, Principal principal) {
+        notificationService.markAsRead(currentUserId(principal), id);
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/read-all")
     public ResponseEntity<Void> markAllAsRead(Principal principal) {
-        Long userId = employeeService.findEmployeeByEmail(principal.getName()).getId();
-        List<Notification> unreadNotifications = notificationRepository.findByUser_IdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        unreadNotifications.forEach(notification -> notification.setRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+        notificationService.markAllAsRead(currentUserId(principal));
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    private Long currentUserId(Principal principal) {
+        return employeeCache.findByEmail(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + principal.getName()))
+                .id();
+    }
+}
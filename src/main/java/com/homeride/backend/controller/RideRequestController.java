@@ -1,6 +1,8 @@
 package com.homeride.backend.controller;
 
+import com.homeride.backend.dto.CursorPageDTO;
 import com.homeride.backend.dto.RideRequestDTO;
+import com.homeride.backend.dto.RideSummaryView;
 import com.homeride.backend.dto.TravelInfo;
 import com.homeride.backend.model.RideParticipant;
 import com.homeride.backend.model.RideRequest;
@@ -46,17 +48,21 @@ public class RideRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<RideRequest>> getAllRides(
+    public ResponseEntity<CursorPageDTO<RideSummaryView>> getAllRides(
             @RequestParam(required = false) String origin,
             @RequestParam(required = false) String destination,
             @RequestParam(required = false) String travelDateTime,
-            @RequestParam(required = false) Integer passengerCount
+            @RequestParam(required = false) Integer passengerCount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
-        List<RideRequest> rides = rideRequestService.getAllRideRequests(
+        CursorPageDTO<RideSummaryView> rides = rideRequestService.getAllRideRequests(
                 origin,
                 destination,
                 travelDateTime,
-                passengerCount
+                passengerCount,
+                cursor,
+                size
         );
         return ResponseEntity.ok(rides);
     }
@@ -78,8 +84,12 @@ public class RideRequestController {
     }
 
     @GetMapping("/my-rides")
-    public ResponseEntity<List<RideRequest>> getMyRides(Principal principal) {
-        List<RideRequest> myRides = rideRequestService.getRidesForUser(principal.getName());
+    public ResponseEntity<List<RideSummaryView>> getMyRides(
+            @RequestParam(required = false) String scope,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Principal principal) {
+        List<RideSummaryView> myRides = rideRequestService.getRidesForUser(principal.getName(), scope, page, size);
         return ResponseEntity.ok(myRides);
     }
 
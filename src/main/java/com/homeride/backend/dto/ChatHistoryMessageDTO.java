@@ -0,0 +1,20 @@
+package com.homeride.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Chat message without the sender's profile picture URL; see ChatHistoryPageDTO.senderProfilePictures
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryMessageDTO {
+    private Long id;
+    private String senderName;
+    private String senderEmail;
+    private String content;
+    private String type;
+    private LocalDateTime timestamp;
+}
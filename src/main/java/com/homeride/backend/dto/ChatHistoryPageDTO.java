@@ -0,0 +1,17 @@
+package com.homeride.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryPageDTO {
+    private List<ChatHistoryMessageDTO> messages; // Oldest first
+    private Map<String, String> senderProfilePictures; // Sender email -> profile picture URL
+    private String nextCursor; // Pass as "before" to load older messages; null when there are none
+}
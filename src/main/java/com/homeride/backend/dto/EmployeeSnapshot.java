@@ -0,0 +1,15 @@
+package com.homeride.backend.dto;
+
+import com.homeride.backend.model.Employee;
+
+/**
+ * Immutable copy of the employee fields used to resolve identity on hot paths
+ * (who is calling, what to show next to their messages), safe to share across threads.
+ */
+public record EmployeeSnapshot(Long id, String email, String name, String role, String gender, String profilePictureUrl) {
+
+    public static EmployeeSnapshot of(Employee employee) {
+        return new EmployeeSnapshot(employee.getId(), employee.getEmail(), employee.getName(), employee.getRole(),
+                employee.getGender(), employee.getProfilePictureUrl());
+    }
+}
@@ -0,0 +1,27 @@
+package com.homeride.backend.dto;
+
+import com.homeride.backend.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Notification as pushed to /user/queue/notifications; same JSON shape as the REST list minus the user
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+    private Long id;
+    private String message;
+    private boolean read;
+    private LocalDateTime createdAt;
+    private String link;
+    private String type;
+    private Long rideId;
+
+    public static NotificationDTO of(Notification notification) {
+        return new NotificationDTO(notification.getId(), notification.getMessage(), notification.isRead(),
+                notification.getCreatedAt(), notification.getLink(), notification.getType(), notification.getRideId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.homeride.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for ride list cards (search results and "my rides").
+ * Built by a constructor projection so listings never load participants, polylines or stopover prices;
+ * the full {@code RideRequest} is only returned by the ride details endpoint.
+ */
+@Data
+@NoArgsConstructor
+public class RideSummaryView {
+    private Long id;
+    private String originCity;
+    private String origin;
+    private String destinationCity;
+    private String destination;
+    private String rideType;
+    private LocalDateTime travelDateTime;
+    private String status;
+    private String vehicleModel;
+    private Integer vehicleCapacity;
+    private Integer seatsAvailable;
+    private String genderPreference;
+    private Double price;
+    private Integer duration; // Duration in minutes
+    private Double distance; // Distance in kilometers
+
+    private Long requesterId;
+    private String requesterName;
+    private String requesterProfilePictureUrl;
+    private Double requesterAverageRating;
+
+    private List<StopoverDto> stopovers = new ArrayList<>();
+
+    // Used by the JPQL constructor expression in RideRequestRepository.findSummariesByIdIn
+    public RideSummaryView(Long id, String originCity, String origin, String destinationCity, String destination,
+                           String rideType, LocalDateTime travelDateTime, String status, String vehicleModel,
+                           Integer vehicleCapacity, Integer seatsBooked, String genderPreference, Double price,
+                           Integer duration, Double distance, Long requesterId, String requesterName,
+                           String requesterProfilePictureUrl) {
+        this.id = id;
+        this.originCity = originCity;
+        this.origin = origin;
+        this.destinationCity = destinationCity;
+        this.destination = destination;
+        this.rideType = rideType;
+        this.travelDateTime = travelDateTime;
+        this.status = status;
+        this.vehicleModel = vehicleModel;
+        this.vehicleCapacity = vehicleCapacity;
+        this.seatsAvailable = vehicleCapacity != null
+                ? vehicleCapacity - (seatsBooked != null ? seatsBooked : 0)
+                : null;
+        this.genderPreference = genderPreference;
+        this.price = price;
+        this.duration = duration;
+        this.distance = distance;
+        this.requesterId = requesterId;
+        this.requesterName = requesterName;
+        this.requesterProfilePictureUrl = requesterProfilePictureUrl;
+    }
+}
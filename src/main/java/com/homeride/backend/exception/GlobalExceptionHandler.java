@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.util.Map;
+import java.util.Objects;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -12,6 +13,23 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Map<String, String>> handleIllegalStateException(IllegalStateException ex) {
         // This will catch our "already joined" or "cannot join own ride" errors
-        return new ResponseEntity<>(Map.of("message", ex.getMessage()), HttpStatus.CONFLICT); // Sends a 409 Conflict status
+        return new ResponseEntity<>(body(ex, "Request conflicts with the current state"), HttpStatus.CONFLICT); // Sends a 409 Conflict status
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        // An upstream lookup was throttled; the client should retry rather than get placeholder data
+        return new ResponseEntity<>(body(ex, "Service temporarily unavailable"), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequestException(InvalidRequestException ex) {
+        // Bad client input such as a malformed pagination cursor or missing booking details
+        return new ResponseEntity<>(body(ex, "Invalid request"), HttpStatus.BAD_REQUEST);
+    }
+
+    // Map.of rejects null values, so an exception without a message must not turn into a 500 here
+    private static Map<String, String> body(RuntimeException ex, String fallback) {
+        return Map.of("message", Objects.requireNonNullElse(ex.getMessage(), fallback));
+    }
+}
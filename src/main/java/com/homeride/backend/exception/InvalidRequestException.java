@@ -0,0 +1,13 @@
+package com.homeride.backend.exception;
+
+/**
+ * Thrown for client input that fails validation, such as a malformed pagination cursor or missing
+ * booking details. {@code GlobalExceptionHandler} maps it to a 400; other runtime exceptions are
+ * left alone so programming errors still surface as 500s.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
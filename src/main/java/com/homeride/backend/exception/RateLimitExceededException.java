@@ -0,0 +1,13 @@
+package com.homeride.backend.exception;
+
+/**
+ * Thrown when an upstream's token bucket in {@code RemoteLookupGateway} is empty. Callers that can
+ * fall back (autocomplete, geocoding) treat it like any other lookup failure; callers that would
+ * otherwise act on placeholder data let it surface as a 503.
+ */
+public class RateLimitExceededException extends IllegalStateException {
+
+    public RateLimitExceededException(String upstream) {
+        super("Rate limit exceeded for " + upstream);
+    }
+}
@@ -1,13 +1,15 @@
 package com.homeride.backend.filter;
 
-import com.homeride.backend.service.EmployeeService;
+import com.homeride.backend.service.TokenPrincipalService;
 import com.homeride.backend.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -22,7 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private EmployeeService employeeService;
+    private TokenPrincipalService tokenPrincipalService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -36,21 +38,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
+        JwtUtil.TokenClaims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+            try {
+                // Verified once per distinct token; repeat requests with the same token hit JwtUtil's cache
+                claims = jwtUtil.verify(authHeader.substring(7));
+            } catch (JwtException e) {
+                logger.debug("Rejected JWT: " + e.getMessage());
+            }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.employeeService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (claims != null && claims.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                UserDetails userDetails = tokenPrincipalService.loadPrincipal(claims);
+                if (claims.subject().equals(userDetails.getUsername()) && !claims.isExpired()) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            } catch (AuthenticationException e) {
+                // Left unauthenticated; protected endpoints answer 401/403
+                logger.debug("JWT principal rejected: " + e.getMessage());
             }
         }
         filterChain.doFilter(request, response);
@@ -59,7 +69,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private boolean isPublicEndpoint(String requestPath) {
         // Health check endpoints
         if (requestPath.startsWith("/health")) return true;
-        if (requestPath.startsWith("/actuator")) return true;
+        if (requestPath.equals("/actuator/health")) return true;
 
         // WebSocket endpoints
         if (requestPath.startsWith("/ws")) return true;
@@ -0,0 +1,49 @@
+package com.homeride.backend.filter;
+
+import com.homeride.backend.config.QueryCountInspector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Logs how many SQL statements each HTTP request executed. Counts are logged at DEBUG,
+ * and at WARN once they pass the configured threshold, which is usually an N+1 query.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final QueryCountInspector queryCountInspector;
+
+    @Value("${sql.statement-count.warn-threshold:50}")
+    private int warnThreshold;
+
+    public QueryCountFilter(QueryCountInspector queryCountInspector) {
+        this.queryCountInspector = queryCountInspector;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        queryCountInspector.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int count = queryCountInspector.getCount();
+            if (count > warnThreshold) {
+                logger.warn("{} {} executed {} SQL statements", request.getMethod(), request.getRequestURI(), count);
+            } else {
+                logger.debug("{} {} executed {} SQL statements", request.getMethod(), request.getRequestURI(), count);
+            }
+        }
+    }
+}
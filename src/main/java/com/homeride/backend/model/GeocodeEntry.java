@@ -0,0 +1,30 @@
+package com.homeride.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored result of a forward geocode, keyed by {@code LocationNormalizer.lookupKey} of the address.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "geocode_entries")
+public class GeocodeEntry {
+
+    @Id
+    @Column(name = "address_key", length = 512)
+    private String addressKey;
+
+    @Column(nullable = false)
+    private Double lat;
+
+    @Column(nullable = false)
+    private Double lng;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
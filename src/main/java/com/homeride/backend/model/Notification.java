@@ -3,7 +3,6 @@ package com.homeride.backend.model;
 import com.homeride.backend.model.Employee; // <-- FIX: This line was missing
 import jakarta.persistence.*;
 import lombok.Data;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -12,8 +11,10 @@ import java.time.LocalDateTime;
 @Table(name = "notifications")
 public class Notification {
 
+    // Pooled sequence (see V3 migration) so multi-recipient inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -26,7 +27,7 @@ public class Notification {
     @Column(nullable = false)
     private boolean isRead = false;
 
-    @CreationTimestamp
+    // Set by the writer (NotificationService, ChatNotificationAggregator) so pushes carry the stored value
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Rating {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ratings_seq")
+    @SequenceGenerator(name = "ratings_seq", sequenceName = "ratings_seq", allocationSize = 50)
     private Long id;
 
     // The user who GAVE the rating
@@ -0,0 +1,46 @@
+package com.homeride.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of the ratings an employee has received, kept in step with the ratings table
+ * so averages can be read without loading every Rating row.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "rating_aggregates")
+public class RatingAggregate {
+
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private long scoreSum;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    // Histogram of scores, one counter per star
+    @Column(nullable = false)
+    private long oneStarCount;
+
+    @Column(nullable = false)
+    private long twoStarCount;
+
+    @Column(nullable = false)
+    private long threeStarCount;
+
+    @Column(nullable = false)
+    private long fourStarCount;
+
+    @Column(nullable = false)
+    private long fiveStarCount;
+
+    public Double getAverageRating() {
+        return ratingCount > 0 ? (double) scoreSum / ratingCount : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.homeride.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored result of a reverse geocode for one grid cell (coordinates rounded to 4 decimals, about 11m).
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "reverse_geocode_entries")
+public class ReverseGeocodeEntry {
+
+    @Id
+    @Column(name = "cell_key", length = 32)
+    private String cellKey;
+
+    @Column(nullable = false, length = 512)
+    private String address;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
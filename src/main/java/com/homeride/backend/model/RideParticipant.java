@@ -11,11 +11,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "ride_participants")
+@Table(name = "ride_participants", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ride_participants_ride_participant", columnNames = {"ride_request_id", "participant_id"})
+}, indexes = {
+        @Index(name = "idx_ride_participants_participant", columnList = "participant_id, ride_request_id")
+})
 public class RideParticipant {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_participants_seq")
+    @SequenceGenerator(name = "ride_participants_seq", sequenceName = "ride_participants_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
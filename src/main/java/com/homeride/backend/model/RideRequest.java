@@ -1,5 +1,6 @@
 package com.homeride.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -7,6 +8,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,12 +19,16 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "ride_requests")
+@Table(name = "ride_requests", indexes = {
+        @Index(name = "idx_ride_requests_type_travel_time", columnList = "ride_type, travel_date_time"),
+        @Index(name = "idx_ride_requests_requester_travel_time", columnList = "requester_id, travel_date_time")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class RideRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_requests_seq")
+    @SequenceGenerator(name = "ride_requests_seq", sequenceName = "ride_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "origin_city", nullable = false)
@@ -57,6 +63,18 @@ public class RideRequest {
     private String status;
     private String vehicleModel;
     private Integer vehicleCapacity;
+
+    // Denormalized sum of participants' numberOfSeats; only changed through the atomic
+    // reserve/release updates in RideRequestRepository so concurrent joins cannot overbook.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer seatsBooked = 0;
+
+    @Version
+    @ColumnDefault("0")
+    @JsonIgnore
+    private Long version;
+
     private String genderPreference;
     private Double price;
     private Integer duration; // Duration in minutes
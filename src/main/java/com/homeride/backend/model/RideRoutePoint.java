@@ -0,0 +1,46 @@
+package com.homeride.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One stop on an offered ride's route (origin = 0, stopovers in order, destination last),
+ * stored with pre-normalized keys so ordered origin -> destination matching can be done in SQL.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "ride_route_points", indexes = {
+        @Index(name = "idx_route_points_city_key", columnList = "city_key, ride_request_id, ordinal"),
+        @Index(name = "idx_route_points_point_key", columnList = "point_key, ride_request_id, ordinal"),
+        @Index(name = "idx_route_points_ride_ordinal", columnList = "ride_request_id, ordinal")
+})
+public class RideRoutePoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_route_points_seq")
+    @SequenceGenerator(name = "ride_route_points_seq", sequenceName = "ride_route_points_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ride_request_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonBackReference
+    private RideRequest rideRequest;
+
+    @Column(nullable = false)
+    private Integer ordinal;
+
+    @Column(name = "city_key", nullable = false)
+    private String cityKey;
+
+    @Column(name = "point_key", nullable = false)
+    private String pointKey;
+
+    private Double lat;
+    private Double lng;
+}
@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 public class Stopover {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_stopovers_seq")
+    @SequenceGenerator(name = "ride_stopovers_seq", sequenceName = "ride_stopovers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -1,12 +1,31 @@
 package com.homeride.backend.repository;
 
+import com.homeride.backend.dto.ChatHistoryMessageDTO;
 import com.homeride.backend.model.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
     List<ChatMessage> findByRideIdOrderByTimestampAsc(Long rideId);
-}
\ No newline at end of file
+
+    // Newest messages of a ride first; both queries walk idx_chat_messages_ride_timestamp_id backwards
+    @Query("SELECT new com.homeride.backend.dto.ChatHistoryMessageDTO(m.id, m.senderName, m.senderEmail, m.content, m.type, m.timestamp) " +
+            "FROM ChatMessage m WHERE m.rideId = :rideId ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatHistoryMessageDTO> findLatest(@Param("rideId") Long rideId, Pageable pageable);
+
+    @Query("SELECT new com.homeride.backend.dto.ChatHistoryMessageDTO(m.id, m.senderName, m.senderEmail, m.content, m.type, m.timestamp) " +
+            "FROM ChatMessage m WHERE m.rideId = :rideId " +
+            "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+            "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatHistoryMessageDTO> findLatestBefore(@Param("rideId") Long rideId,
+                                                 @Param("timestamp") LocalDateTime timestamp,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+}
@@ -2,9 +2,14 @@ package com.homeride.backend.repository;
 
 import com.homeride.backend.model.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByEmail(String email); // Used for login/authentication
     boolean existsByEmail(String email);         // Used for registration check
+
+    @Query("SELECT e.role FROM Employee e WHERE e.email = :email")
+    Optional<String> findRoleByEmail(@Param("email") String email); // Used for token role checks
 }
\ No newline at end of file
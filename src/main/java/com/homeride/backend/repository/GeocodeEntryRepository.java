@@ -0,0 +1,25 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.GeocodeEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GeocodeEntryRepository extends JpaRepository<GeocodeEntry, String> {
+
+    // Concurrent lookups of the same new address may both try to store it; the first one wins
+    @Modifying
+    @Query(value = "INSERT INTO geocode_entries (address_key, lat, lng, created_at) " +
+            "VALUES (:addressKey, :lat, :lng, now()) ON CONFLICT (address_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("addressKey") String addressKey, @Param("lat") double lat, @Param("lng") double lng);
+
+    @Query("SELECT g FROM GeocodeEntry g ORDER BY g.createdAt DESC")
+    List<GeocodeEntry> findMostRecent(Pageable pageable);
+}
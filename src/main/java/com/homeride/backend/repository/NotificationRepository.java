@@ -1,17 +1,42 @@
 package com.homeride.backend.repository;
 
-import com.homeride.backend.model.Employee;
 import com.homeride.backend.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUser_IdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
 
-    // NEW METHOD
-    Optional<Notification> findFirstByUserAndRideIdAndTypeAndIsReadFalse(Employee user, Long rideId, String type);
-}
\ No newline at end of file
+    // Delta for clients reconnecting to the notification queue: unread rows past their (createdAt, id)
+    // watermark. Ids alone can't be used: pooled ids are not in insert order and bumped rows keep theirs
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false " +
+            "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadAfter(@Param("userId") Long userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id);
+
+    long countByUser_IdAndIsReadFalse(Long userId);
+
+    // Ownership is part of the WHERE clause, so users can only mark their own notifications
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    // One retention chunk; the partial index on (created_at) WHERE is_read serves the inner select
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+            "SELECT id FROM notifications WHERE is_read AND created_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deleteReadBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
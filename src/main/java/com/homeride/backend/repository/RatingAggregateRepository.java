@@ -0,0 +1,38 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.RatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (employee_id, score_sum, rating_count, one_star_count, two_star_count, " +
+            "three_star_count, four_star_count, five_star_count) " +
+            "VALUES (:employeeId, :score, 1, CASE WHEN :score = 1 THEN 1 ELSE 0 END, CASE WHEN :score = 2 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :score = 3 THEN 1 ELSE 0 END, CASE WHEN :score = 4 THEN 1 ELSE 0 END, CASE WHEN :score = 5 THEN 1 ELSE 0 END) " +
+            "ON CONFLICT (employee_id) DO UPDATE SET " +
+            "score_sum = rating_aggregates.score_sum + EXCLUDED.score_sum, " +
+            "rating_count = rating_aggregates.rating_count + 1, " +
+            "one_star_count = rating_aggregates.one_star_count + EXCLUDED.one_star_count, " +
+            "two_star_count = rating_aggregates.two_star_count + EXCLUDED.two_star_count, " +
+            "three_star_count = rating_aggregates.three_star_count + EXCLUDED.three_star_count, " +
+            "four_star_count = rating_aggregates.four_star_count + EXCLUDED.four_star_count, " +
+            "five_star_count = rating_aggregates.five_star_count + EXCLUDED.five_star_count",
+            nativeQuery = true)
+    void addScore(@Param("employeeId") Long employeeId, @Param("score") int score);
+
+    @Modifying
+    @Query("UPDATE RatingAggregate a SET a.scoreSum = a.scoreSum - :score, a.ratingCount = a.ratingCount - 1, " +
+            "a.oneStarCount = a.oneStarCount - CASE WHEN :score = 1 THEN 1 ELSE 0 END, " +
+            "a.twoStarCount = a.twoStarCount - CASE WHEN :score = 2 THEN 1 ELSE 0 END, " +
+            "a.threeStarCount = a.threeStarCount - CASE WHEN :score = 3 THEN 1 ELSE 0 END, " +
+            "a.fourStarCount = a.fourStarCount - CASE WHEN :score = 4 THEN 1 ELSE 0 END, " +
+            "a.fiveStarCount = a.fiveStarCount - CASE WHEN :score = 5 THEN 1 ELSE 0 END " +
+            "WHERE a.employeeId = :employeeId AND a.ratingCount > 0")
+    int removeScore(@Param("employeeId") Long employeeId, @Param("score") int score);
+}
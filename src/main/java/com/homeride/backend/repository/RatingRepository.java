@@ -5,6 +5,8 @@ import com.homeride.backend.model.Employee;
 import com.homeride.backend.model.Rating;
 import com.homeride.backend.model.RideRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,9 +17,9 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     boolean existsByRideRequestAndRaterAndRatee(RideRequest rideRequest, Employee rater, Employee ratee);
     List<Rating> findByRater(Employee rater);
 
-    void deleteAllByRideRequest(RideRequest rideRequest);
+    List<Rating> findByRideRequest(RideRequest rideRequest);
 
-    // NEW: Methods to delete ratings associated with a specific user on a specific ride.
-    void deleteAllByRideRequestAndRater(RideRequest rideRequest, Employee rater);
-    void deleteAllByRideRequestAndRatee(RideRequest rideRequest, Employee ratee);
+    // Ratings on one ride given or received by one employee
+    @Query("SELECT r FROM Rating r WHERE r.rideRequest.id = :rideId AND (r.rater.id = :employeeId OR r.ratee.id = :employeeId)")
+    List<Rating> findByRideInvolving(@Param("rideId") Long rideId, @Param("employeeId") Long employeeId);
 }
\ No newline at end of file
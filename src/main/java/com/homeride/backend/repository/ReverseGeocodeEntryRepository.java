@@ -0,0 +1,18 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.ReverseGeocodeEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReverseGeocodeEntryRepository extends JpaRepository<ReverseGeocodeEntry, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO reverse_geocode_entries (cell_key, address, created_at) " +
+            "VALUES (:cellKey, :address, now()) ON CONFLICT (cell_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("cellKey") String cellKey, @Param("address") String address);
+}
@@ -5,6 +5,7 @@ import com.homeride.backend.model.RideParticipant;
 import com.homeride.backend.model.RideRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +17,12 @@ public interface RideParticipantRepository extends JpaRepository<RideParticipant
 
     @Query("SELECT p FROM RideParticipant p JOIN FETCH p.participant WHERE p.rideRequest.id = :rideRequestId")
     List<RideParticipant> findByRideRequestIdWithParticipant(Long rideRequestId);
+
+    @Query("SELECT e.id AS id, e.email AS email FROM RideParticipant p JOIN p.participant e WHERE p.rideRequest.id = :rideId")
+    List<MemberRow> findMembersByRideId(@Param("rideId") Long rideId);
+
+    interface MemberRow {
+        Long getId();
+        String getEmail();
+    }
 }
\ No newline at end of file
@@ -1,22 +1,38 @@
 package com.homeride.backend.repository;
 
+import com.homeride.backend.dto.RideSummaryView;
 import com.homeride.backend.model.Employee;
 import com.homeride.backend.model.RideRequest;
+import com.homeride.backend.model.RideRoutePoint;
 import com.homeride.backend.model.Stopover;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RideRequestRepository extends JpaRepository<RideRequest, Long>, JpaSpecificationExecutor<RideRequest> {
+public interface RideRequestRepository extends JpaRepository<RideRequest, Long>, JpaSpecificationExecutor<RideRequest>,
+        RideRequestRepositoryCustom {
+
+    // Open bounds for the travel-time window of findRideIdsForUser
+    LocalDateTime EARLIEST_TRAVEL_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    LocalDateTime LATEST_TRAVEL_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
 
     // FIXED: Added "stopovers" to EntityGraph
     @Override
@@ -29,6 +45,52 @@ public interface RideRequestRepository extends JpaRepository<RideRequest, Long>,
     @EntityGraph(attributePaths = {"requester", "driver", "participants.participant", "stopovers"})
     Optional<RideRequest> findById(Long id);
 
+    @EntityGraph(attributePaths = {"requester", "driver", "participants.participant", "stopovers"})
+    List<RideRequest> findAllByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.homeride.backend.dto.RideSummaryView(" +
+            "r.id, r.originCity, r.origin, r.destinationCity, r.destination, r.rideType, r.travelDateTime, " +
+            "r.status, r.vehicleModel, r.vehicleCapacity, r.seatsBooked, r.genderPreference, r.price, " +
+            "r.duration, r.distance, req.id, req.name, req.profilePictureUrl) " +
+            "FROM RideRequest r LEFT JOIN r.requester req WHERE r.id IN :ids")
+    List<RideSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s FROM Stopover s WHERE s.rideRequest.id IN :rideIds ORDER BY s.id")
+    List<Stopover> findStopoversByRideIdIn(@Param("rideIds") Collection<Long> rideIds);
+
+    @Query("SELECT r.requester.id AS driverId, r.requester.email AS driverEmail, " +
+            "r.originCity AS originCity, r.destinationCity AS destinationCity FROM RideRequest r WHERE r.id = :rideId")
+    Optional<MembershipHeader> findMembershipHeader(@Param("rideId") Long rideId);
+
+    interface MembershipHeader {
+        Long getDriverId();
+        String getDriverEmail();
+        String getOriginCity();
+        String getDestinationCity();
+    }
+
+    // Every location name stored on rides and stopovers, for seeding the autocomplete index
+    @Query(value = "SELECT origin_city FROM ride_requests UNION SELECT origin FROM ride_requests " +
+            "UNION SELECT destination_city FROM ride_requests UNION SELECT destination FROM ride_requests " +
+            "UNION SELECT city FROM ride_stopovers UNION SELECT point FROM ride_stopovers",
+            nativeQuery = true)
+    List<String> findDistinctLocationNames();
+
+    // Rides the user drives UNION rides the user joined; each branch is served by its own index
+    @Query(value = "SELECT u.id FROM (" +
+            "SELECT r.id, r.travel_date_time FROM ride_requests r " +
+            "WHERE r.requester_id = :userId AND r.travel_date_time >= :from AND r.travel_date_time < :to " +
+            "UNION " +
+            "SELECT r.id, r.travel_date_time FROM ride_participants p JOIN ride_requests r ON r.id = p.ride_request_id " +
+            "WHERE p.participant_id = :userId AND r.travel_date_time >= :from AND r.travel_date_time < :to" +
+            ") u ORDER BY u.travel_date_time, u.id LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Long> findRideIdsForUser(@Param("userId") Long userId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to,
+                                  @Param("limit") int limit,
+                                  @Param("offset") long offset);
+
     // FIXED: Updated to use stopovers instead of stops
     @Query("SELECT DISTINCT r FROM RideRequest r LEFT JOIN r.stopovers s WHERE " +
             "(LOWER(r.origin) LIKE LOWER(CONCAT('%', :location, '%')) OR " +
@@ -44,6 +106,24 @@ public interface RideRequestRepository extends JpaRepository<RideRequest, Long>,
             "LOWER(s.point) LIKE LOWER(CONCAT('%', :destination, '%'))))")
     List<RideRequest> findByOriginAndDestinationInPath(@Param("origin") String origin, @Param("destination") String destination);
 
+    @Query("SELECT r FROM RideRequest r WHERE r.rideType = 'OFFERED' AND r.travelDateTime > :cutoff " +
+            "AND NOT EXISTS (SELECT p FROM RideRoutePoint p WHERE p.rideRequest = r)")
+    List<RideRequest> findUpcomingOffersWithoutRoutePoints(@Param("cutoff") LocalDateTime cutoff);
+
+    // Conditional increment: returns 0 instead of overbooking when fewer than :seats seats are left
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RideRequest r SET r.seatsBooked = r.seatsBooked + :seats, r.version = r.version + 1 " +
+            "WHERE r.id = :rideId AND r.vehicleCapacity - r.seatsBooked >= :seats")
+    int reserveSeats(@Param("rideId") Long rideId, @Param("seats") int seats);
+
+    @Query("SELECT r.vehicleCapacity - r.seatsBooked FROM RideRequest r WHERE r.id = :rideId")
+    Integer findSeatsLeft(@Param("rideId") Long rideId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RideRequest r SET r.seatsBooked = r.seatsBooked - :seats, r.version = r.version + 1 " +
+            "WHERE r.id = :rideId AND r.seatsBooked >= :seats")
+    int releaseSeats(@Param("rideId") Long rideId, @Param("seats") int seats);
+
     long countByRequester(Employee requester);
     long countByDriver(Employee driver);
 
@@ -120,6 +200,63 @@ public interface RideRequestRepository extends JpaRepository<RideRequest, Long>,
             };
         }
 
+        // Ordered match over the route index: some point matching the origin key precedes one matching the destination key.
+        // A point matches when its key contains the search key ("gachibowli" finds "gachibowli circle"; served by the
+        // trigram indexes from V9) or equals a whole-word span of it ("gachibowli circle" finds "gachibowli"; served
+        // by the B-tree key indexes). The EXISTS is correlated through (ride_request_id, ordinal).
+        static Specification<RideRequest> servesJourney(String originKey, String destinationKey) {
+            return (root, query, cb) -> {
+                var subquery = query.subquery(Long.class);
+                var from = subquery.from(RideRoutePoint.class);
+                var to = subquery.from(RideRoutePoint.class);
+                subquery.select(cb.literal(1L))
+                        .where(
+                                cb.equal(from.get("rideRequest"), root),
+                                cb.equal(to.get("rideRequest"), root),
+                                cb.lessThan(from.<Integer>get("ordinal"), to.<Integer>get("ordinal")),
+                                matchesKey(cb, from, originKey),
+                                matchesKey(cb, to, destinationKey)
+                        );
+                return cb.exists(subquery);
+            };
+        }
+
+        private static Predicate matchesKey(CriteriaBuilder cb, From<?, RideRoutePoint> point, String key) {
+            Expression<String> cityKey = point.get("cityKey");
+            Expression<String> pointKey = point.get("pointKey");
+            String contained = "%" + escapeLike(key) + "%";
+            List<String> spans = wordSpans(key);
+            if (spans.isEmpty()) {
+                return cb.or(cb.like(cityKey, contained, '\\'), cb.like(pointKey, contained, '\\'));
+            }
+            return cb.or(
+                    cb.like(cityKey, contained, '\\'),
+                    cb.like(pointKey, contained, '\\'),
+                    cityKey.in(spans),
+                    pointKey.in(spans)
+            );
+        }
+
+        // Every run of consecutive words in the key longer than two characters, e.g. "gachibowli circle",
+        // "gachibowli" and "circle" for "gachibowli circle"
+        private static List<String> wordSpans(String key) {
+            String[] words = key.trim().split(" ");
+            List<String> spans = new ArrayList<>();
+            for (int start = 0; start < words.length; start++) {
+                for (int end = start + 1; end <= words.length; end++) {
+                    String span = String.join(" ", Arrays.copyOfRange(words, start, end));
+                    if (span.length() > 2) {
+                        spans.add(span);
+                    }
+                }
+            }
+            return spans;
+        }
+
+        private static String escapeLike(String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+
         static Specification<RideRequest> isOfferedRide() {
             return (root, query, cb) -> cb.equal(root.get("rideType"), "OFFERED");
         }
@@ -136,6 +273,31 @@ public interface RideRequestRepository extends JpaRepository<RideRequest, Long>,
             return (root, query, cb) -> cb.greaterThan(root.get("travelDateTime"), dateTime);
         }
 
+        static Specification<RideRequest> departsOn(LocalDate date) {
+            return (root, query, cb) -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("travelDateTime"), date.atStartOfDay()),
+                    cb.lessThan(root.get("travelDateTime"), date.plusDays(1).atStartOfDay())
+            );
+        }
+
+        static Specification<RideRequest> hasAvailableSeats(Integer passengerCount) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(
+                    cb.diff(root.<Integer>get("vehicleCapacity"), root.<Integer>get("seatsBooked")),
+                    passengerCount
+            );
+        }
+
+        // Keyset condition: strictly after (travelDateTime, id) in the search sort order
+        static Specification<RideRequest> isAfterKey(LocalDateTime travelDateTime, Long id) {
+            return (root, query, cb) -> cb.or(
+                    cb.greaterThan(root.get("travelDateTime"), travelDateTime),
+                    cb.and(
+                            cb.equal(root.get("travelDateTime"), travelDateTime),
+                            cb.greaterThan(root.get("id"), id)
+                    )
+            );
+        }
+
         static Specification<RideRequest> isPending() {
             return (root, query, cb) -> cb.equal(root.get("status"), "PENDING");
         }
@@ -0,0 +1,16 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.RideRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface RideRequestRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} ids of rides matching {@code spec}, ordered by (travelDateTime, id).
+     * Only ids are selected so the limit is applied by the database; fetching the rides with their
+     * collections afterwards keeps Hibernate from paginating in memory.
+     */
+    List<Long> findIdsOrderedByTravelTime(Specification<RideRequest> spec, int limit);
+}
@@ -0,0 +1,9 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.RideRoutePoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RideRoutePointRepository extends JpaRepository<RideRoutePoint, Long> {
+}
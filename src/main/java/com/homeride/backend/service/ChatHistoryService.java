@@ -0,0 +1,80 @@
+package com.homeride.backend.service;
+
+import com.homeride.backend.dto.ChatHistoryMessageDTO;
+import com.homeride.backend.dto.ChatHistoryPageDTO;
+import com.homeride.backend.dto.EmployeeSnapshot;
+import com.homeride.backend.repository.ChatMessageRepository;
+import com.homeride.backend.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ChatHistoryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final RideMembershipCache rideMembershipCache;
+    private final EmployeeCache employeeCache;
+
+    @Autowired
+    public ChatHistoryService(ChatMessageRepository chatMessageRepository,
+                              RideMembershipCache rideMembershipCache,
+                              EmployeeCache employeeCache) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.rideMembershipCache = rideMembershipCache;
+        this.employeeCache = employeeCache;
+    }
+
+    /**
+     * Returns the latest {@code size} messages of a ride older than {@code before} (or the latest
+     * overall when it is null), oldest first. Each page is one bounded index range scan, however long
+     * the chat is. Profile pictures are sent once per sender instead of on every message.
+     */
+    public ChatHistoryPageDTO getHistoryPage(Long rideId, String userEmail, String before, Integer size) {
+        if (!rideMembershipCache.isMember(rideId, userEmail)) {
+            throw new AccessDeniedException("You are not a member of this ride's chat.");
+        }
+
+        int pageSize = size != null ? Math.max(1, Math.min(size, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ChatHistoryMessageDTO> newestFirst;
+        if (before != null && !before.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(before);
+            newestFirst = chatMessageRepository.findLatestBefore(rideId, cursor.timestamp(), cursor.id(), limit);
+        } else {
+            newestFirst = chatMessageRepository.findLatest(rideId, limit);
+        }
+
+        // One extra row tells us whether older messages exist
+        boolean hasMore = newestFirst.size() > pageSize;
+        List<ChatHistoryMessageDTO> messages = new ArrayList<>(hasMore ? newestFirst.subList(0, pageSize) : newestFirst);
+        Collections.reverse(messages);
+
+        Map<String, String> profilePictures = new HashMap<>();
+        for (ChatHistoryMessageDTO message : messages) {
+            if (!profilePictures.containsKey(message.getSenderEmail())) {
+                profilePictures.put(message.getSenderEmail(), employeeCache.findByEmail(message.getSenderEmail())
+                        .map(EmployeeSnapshot::profilePictureUrl)
+                        .orElse(null));
+            }
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            ChatHistoryMessageDTO oldest = messages.get(0);
+            nextCursor = new KeysetCursor(oldest.getTimestamp(), oldest.getId()).encode();
+        }
+        return new ChatHistoryPageDTO(messages, profilePictures, nextCursor);
+    }
+}
@@ -0,0 +1,146 @@
+package com.homeride.backend.service;
+
+import com.homeride.backend.dto.NotificationDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces chat notifications per (recipient, ride). Chat fan-out only marks the pair dirty;
+ * a scheduled flush writes each dirty pair once, so a burst of N messages costs one write per
+ * recipient instead of a lookup and a save per message. The flush is a single upsert against the
+ * unique unread-chat index: the pair's unread chat notification is bumped to the flush time,
+ * otherwise a new one is inserted. The written rows are then pushed to each recipient's
+ * notification queue. Stamping the flush time rather than the message time keeps bumped rows
+ * ahead of the (createdAt, id) watermark clients use to fetch what they missed.
+ */
+@Service
+public class ChatNotificationAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatNotificationAggregator.class);
+
+    static final String CHAT_MESSAGE = "CHAT_MESSAGE";
+
+    // Conflict target is uq_notifications_user_ride_unread_chat (V6); xmax = 0 only for freshly inserted rows
+    private static final String UPSERT_SQL =
+            "INSERT INTO notifications (id, user_id, ride_id, type, message, link, is_read, created_at) VALUES %s " +
+            "ON CONFLICT (user_id, ride_id) WHERE NOT is_read AND type = '" + CHAT_MESSAGE + "' " +
+            "DO UPDATE SET created_at = EXCLUDED.created_at " +
+            "RETURNING id, user_id, ride_id, message, link, created_at, (xmax = 0) AS inserted";
+
+    private static final String UPSERT_ROW = "(nextval('notifications_seq'), ?, ?, '" + CHAT_MESSAGE + "', ?, ?, false, ?)";
+
+    // Keeps each statement well under the driver's bind parameter limit
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final Map<Key, Pending> dirty = new ConcurrentHashMap<>();
+    private final Counter flushedRows;
+
+    private record Key(long userId, long rideId) {
+    }
+
+    private record Pending(String message, String link) {
+    }
+
+    @Autowired
+    public ChatNotificationAggregator(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      NotificationService notificationService,
+                                      UnreadNotificationCounter unreadNotificationCounter,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationService = notificationService;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        Gauge.builder("chat.notifications.dirty", dirty, Map::size).register(meterRegistry);
+        this.flushedRows = Counter.builder("chat.notifications.flushed")
+                .description("Chat notification rows written by the aggregator")
+                .register(meterRegistry);
+    }
+
+    public void markDirty(long userId, long rideId, String message, String link) {
+        dirty.put(new Key(userId, rideId), new Pending(message, link));
+    }
+
+    @Scheduled(fixedDelayString = "${chat.notifications.flush-interval:PT2S}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        // Take ownership of each entry; anything marked after its removal is picked up by the next flush
+        List<Map.Entry<Key, Pending>> batch = new ArrayList<>(dirty.size());
+        for (Key key : dirty.keySet()) {
+            Pending pending = dirty.remove(key);
+            if (pending != null) {
+                batch.add(Map.entry(key, pending));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Microseconds, the column's precision, so the pushed createdAt matches the stored one
+                Timestamp flushedAt = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+                for (int from = 0; from < batch.size(); from += UPSERT_CHUNK_SIZE) {
+                    upsert(batch.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, batch.size())), flushedAt);
+                }
+            });
+            flushedRows.increment(batch.size());
+        } catch (Exception e) {
+            logger.warn("Flushing {} chat notifications failed, will retry: {}", batch.size(), e.getMessage());
+            for (Map.Entry<Key, Pending> entry : batch) {
+                dirty.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void upsert(List<Map.Entry<Key, Pending>> chunk, Timestamp flushedAt) {
+        String sql = String.format(UPSERT_SQL, String.join(", ", Collections.nCopies(chunk.size(), UPSERT_ROW)));
+        List<Object> args = new ArrayList<>(chunk.size() * 5);
+        for (Map.Entry<Key, Pending> entry : chunk) {
+            args.add(entry.getKey().userId());
+            args.add(entry.getKey().rideId());
+            args.add(entry.getValue().message());
+            args.add(entry.getValue().link());
+            args.add(flushedAt);
+        }
+
+        jdbcTemplate.query(sql, rs -> {
+            long userId = rs.getLong("user_id");
+            // Bumped rows were already unread; only new ones change the badge
+            if (rs.getBoolean("inserted")) {
+                unreadNotificationCounter.addAfterCommit(userId, 1);
+            }
+            notificationService.pushAfterCommit(userId, new NotificationDTO(rs.getLong("id"), rs.getString("message"), false,
+                    rs.getTimestamp("created_at").toLocalDateTime(), rs.getString("link"), CHAT_MESSAGE, rs.getLong("ride_id")));
+        }, args.toArray());
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+    }
+}
@@ -0,0 +1,206 @@
+package com.homeride.backend.service;
+
+import com.homeride.backend.model.ChatMessage;
+import com.homeride.backend.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists chat messages and their notifications off the STOMP inbound thread.
+ * Messages are queued after they have been broadcast and a single writer thread commits them in
+ * batches (one transaction per batch, collected for up to {@code chat.persistence.flush-interval}).
+ * When the bounded queue is full the caller persists its message synchronously, which slows
+ * senders down instead of dropping messages.
+ */
+@Service
+public class ChatPersistenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatPersistenceService.class);
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final RideMembershipCache rideMembershipCache;
+    private final ChatNotificationAggregator chatNotificationAggregator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingMessage> queue;
+    private final int maxBatchSize;
+    private final Duration flushInterval;
+
+    private final Timer persistLatency;
+    private final Counter synchronousFallbacks;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    private record PendingMessage(ChatMessage message, long enqueuedAt) {
+    }
+
+    @Autowired
+    public ChatPersistenceService(ChatMessageRepository chatMessageRepository,
+                                  RideMembershipCache rideMembershipCache,
+                                  ChatNotificationAggregator chatNotificationAggregator,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${chat.persistence.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${chat.persistence.max-batch-size:200}") int maxBatchSize,
+                                  @Value("${chat.persistence.flush-interval:PT0.005S}") Duration flushInterval) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.rideMembershipCache = rideMembershipCache;
+        this.chatNotificationAggregator = chatNotificationAggregator;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushInterval = flushInterval;
+
+        Gauge.builder("chat.persistence.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.persistLatency = Timer.builder("chat.persistence.latency")
+                .description("Time from enqueue to commit of a chat message")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.synchronousFallbacks = Counter.builder("chat.persistence.sync-fallback")
+                .description("Messages persisted on the caller thread because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::runWriter, "chat-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void submit(ChatMessage message) {
+        PendingMessage pending = new PendingMessage(message, System.nanoTime());
+        if (!queue.offer(pending)) {
+            synchronousFallbacks.increment();
+            persistBatch(List.of(pending));
+        }
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Group commit: collect whatever else arrives within the flush interval
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                persistBatch(batch);
+            } catch (InterruptedException e) {
+                // Keep what was collected; the loop condition drains the rest
+                running = false;
+                if (!batch.isEmpty()) {
+                    persistBatch(batch);
+                }
+            } catch (Exception e) {
+                // Retry one by one so a single bad message doesn't take the whole batch down with it
+                logger.warn("Batch of {} chat messages failed, retrying individually: {}", batch.size(), e.getMessage());
+                for (PendingMessage pending : batch) {
+                    try {
+                        persistBatch(List.of(pending));
+                    } catch (Exception single) {
+                        logger.error("Failed to persist chat message for ride {}", pending.message().getRideId(), single);
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persistBatch(List<PendingMessage> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ChatMessage> messages = batch.stream().map(PendingMessage::message).toList();
+            chatMessageRepository.saveAll(messages);
+            notifyRideMembers(messages);
+        });
+        long now = System.nanoTime();
+        for (PendingMessage pending : batch) {
+            persistLatency.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Marks one chat notification per recipient and ride, skipping members whose own messages are the only new ones
+    private void notifyRideMembers(List<ChatMessage> messages) {
+        Map<Long, Set<String>> sendersByRide = new LinkedHashMap<>();
+        for (ChatMessage message : messages) {
+            sendersByRide.computeIfAbsent(message.getRideId(), id -> new HashSet<>()).add(message.getSenderEmail());
+        }
+
+        sendersByRide.forEach((rideId, senders) -> {
+            RideMembershipCache.RideMembership ride = rideMembershipCache.find(rideId).orElse(null);
+            if (ride == null) {
+                return;
+            }
+            String message = "You have a new message in the chat for your ride from " + ride.originCity() + " to " + ride.destinationCity();
+            String link = "/ride/" + rideId;
+
+            // Notify the driver
+            if (hasOtherSender(senders, ride.driverEmail())) {
+                chatNotificationAggregator.markDirty(ride.driverId(), rideId, message, link);
+            }
+
+            // Notify participants
+            for (int i = 0; i < ride.participantIds().length; i++) {
+                if (hasOtherSender(senders, ride.participantEmails()[i])) {
+                    chatNotificationAggregator.markDirty(ride.participantIds()[i], rideId, message, link);
+                }
+            }
+        });
+    }
+
+    private static boolean hasOtherSender(Set<String> senders, String recipientEmail) {
+        return senders.size() > 1 || !senders.contains(recipientEmail);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The writer notices within its poll timeout and exits once the queue is empty
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty()) {
+            // Writer did not finish in time; persist the rest on the shutdown thread
+            List<PendingMessage> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            persistBatch(remaining);
+        }
+    }
+}
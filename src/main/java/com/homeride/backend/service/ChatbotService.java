@@ -6,10 +6,9 @@ import com.homeride.backend.dto.ChatbotResponseDTO;
 import com.homeride.backend.model.Employee;
 import com.homeride.backend.model.RideRequest;
 import com.homeride.backend.model.Stopover;
-import com.homeride.backend.model.Rating;
+import com.homeride.backend.model.RatingAggregate;
 import com.homeride.backend.repository.EmployeeRepository;
 import com.homeride.backend.repository.RideRequestRepository;
-import com.homeride.backend.repository.RatingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -36,10 +35,10 @@ public class ChatbotService {
     private EmployeeRepository employeeRepository;
 
     @Autowired
-    private RideRequestRepository rideRequestRepository;
+    private RatingService ratingService;
 
     @Autowired
-    private RatingRepository ratingRepository;
+    private RideRequestService rideRequestService;
 
     @PostConstruct
     public void init() {
@@ -203,28 +202,15 @@ public class ChatbotService {
             context.append("Phone: ").append(user.getPhoneNumber() != null ? user.getPhoneNumber() : "Not provided").append("\n");
 
             // Average rating
-            List<Rating> receivedRatings = ratingRepository.findByRateeId(user.getId());
-            Double avgRating = null;
-            if (!receivedRatings.isEmpty()) {
-                avgRating = receivedRatings.stream().mapToInt(Rating::getScore).average().orElse(0.0);
-                context.append("Average Rating: ").append(String.format("%.1f/5.0", avgRating)).append(" (").append(receivedRatings.size()).append(" ratings)\n");
-            } else {
-                context.append("Average Rating: No ratings yet\n");
-            }
+            appendAverageRating(context, user.getId());
 
             context.append("Travel Credit: ₹").append(String.format("%.2f", user.getTravelCredit())).append("\n");
             context.append("Member Since: ").append(user.getCreatedAt()).append("\n\n");
 
             // Ride stats
             Long userId = user.getId();
-            List<RideRequest> allRides = rideRequestRepository.findAll().stream()
-                    .filter(r -> {
-                        boolean isRequester = r.getRequester() != null && r.getRequester().getId().equals(userId);
-                        boolean isParticipant = r.getParticipants() != null && r.getParticipants().stream()
-                                .anyMatch(p -> p.getParticipant().getId().equals(userId));
-                        return isRequester || isParticipant;
-                    })
-                    .collect(Collectors.toList());
+            List<RideRequest> allRides = rideRequestService.findRidesForUser(userId,
+                    RideRequestRepository.EARLIEST_TRAVEL_TIME, RideRequestRepository.LATEST_TRAVEL_TIME);
 
             List<RideRequest> pastRides = allRides.stream()
                     .filter(r -> r.getTravelDateTime().isBefore(LocalDateTime.now()))
@@ -253,31 +239,16 @@ public class ChatbotService {
             context.append("Phone: ").append(user.getPhoneNumber() != null ? user.getPhoneNumber() : "Not provided").append("\n");
 
             // Calculate and include average rating
-            List<Rating> receivedRatings = ratingRepository.findByRateeId(user.getId());
-            Double avgRating = null;
-            if (!receivedRatings.isEmpty()) {
-                avgRating = receivedRatings.stream().mapToInt(Rating::getScore).average().orElse(0.0);
-                context.append("Average Rating: ").append(String.format("%.1f/5.0", avgRating)).append(" (").append(receivedRatings.size()).append(" ratings)\n");
-            } else {
-                context.append("Average Rating: No ratings yet\n");
-            }
+            appendAverageRating(context, user.getId());
 
             context.append("Travel Credit: ₹").append(String.format("%.2f", user.getTravelCredit())).append("\n");
             context.append("Member Since: ").append(user.getCreatedAt()).append("\n\n");
 
             Long userId = user.getId();
 
-            // Get ALL rides, filter for UPCOMING only
-            List<RideRequest> allRides = rideRequestRepository.findAll().stream()
-                    .filter(r -> {
-                        boolean isRequester = r.getRequester() != null && r.getRequester().getId().equals(userId);
-                        boolean isParticipant = r.getParticipants() != null && r.getParticipants().stream()
-                                .anyMatch(p -> p.getParticipant().getId().equals(userId));
-                        return isRequester || isParticipant;
-                    })
-                    .filter(r -> r.getTravelDateTime().isAfter(LocalDateTime.now())) // ONLY FUTURE RIDES
-                    .sorted((a, b) -> a.getTravelDateTime().compareTo(b.getTravelDateTime()))
-                    .collect(Collectors.toList());
+            // UPCOMING rides only, already ordered by travel time
+            List<RideRequest> allRides = rideRequestService.findRidesForUser(userId,
+                    LocalDateTime.now(), RideRequestRepository.LATEST_TRAVEL_TIME);
 
             System.out.println("DEBUG: Upcoming rides only: " + allRides.size());
 
@@ -305,9 +276,7 @@ public class ChatbotService {
 
                     if (ride.getRideType().equals("OFFERED")) {
                         context.append("  Vehicle: ").append(ride.getVehicleModel()).append(" (").append(ride.getVehicleCapacity()).append(" total seats)\n");
-                        int bookedSeats = ride.getParticipants() != null ?
-                                (int)ride.getParticipants().stream().mapToInt(p -> p.getNumberOfSeats() != null ? p.getNumberOfSeats() : 1).sum() : 0;
-                        context.append("  Available: ").append(ride.getVehicleCapacity() - bookedSeats).append(" seats\n");
+                        context.append("  Available: ").append(ride.getVehicleCapacity() - ride.getSeatsBooked()).append(" seats\n");
                         context.append("  Gender Preference: ").append(ride.getGenderPreference() != null ? ride.getGenderPreference() : "Any").append("\n");
                         if (ride.getDriverNote() != null && !ride.getDriverNote().isEmpty()) {
                             context.append("  Driver Note: ").append(ride.getDriverNote()).append("\n");
@@ -346,12 +315,17 @@ public class ChatbotService {
         return context.toString();
     }
 
-    private Double calculateAvgRating(Long employeeId) {
-        List<Rating> ratings = ratingRepository.findByRateeId(employeeId);
-        if (ratings == null || ratings.isEmpty()) {
-            return null;
+    private void appendAverageRating(StringBuilder context, Long employeeId) {
+        RatingAggregate aggregate = ratingService.getRatingAggregate(employeeId).orElse(null);
+        if (aggregate != null && aggregate.getRatingCount() > 0) {
+            context.append("Average Rating: ").append(String.format("%.1f/5.0", aggregate.getAverageRating())).append(" (").append(aggregate.getRatingCount()).append(" ratings)\n");
+        } else {
+            context.append("Average Rating: No ratings yet\n");
         }
-        return ratings.stream().mapToDouble(Rating::getScore).average().orElse(0.0);
+    }
+
+    private Double calculateAvgRating(Long employeeId) {
+        return ratingService.calculateAverageRating(employeeId);
     }
 
     private String formatDateTime(LocalDateTime dateTime) {
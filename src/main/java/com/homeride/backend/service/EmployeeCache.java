@@ -0,0 +1,75 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.homeride.backend.dto.EmployeeSnapshot;
+import com.homeride.backend.model.Employee;
+import com.homeride.backend.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded cache of {@link EmployeeSnapshot}s keyed by id, plus an email to id index. Snapshots live
+ * in one place only, so a lookup by email can never leave behind a copy that is older than the one
+ * EmployeeService wrote through. The TTL bounds staleness for any other change. Unknown emails/ids
+ * are never cached, so a newly registered employee is found immediately.
+ */
+@Service
+public class EmployeeCache {
+
+    private final EmployeeRepository employeeRepository;
+    private final Cache<Long, EmployeeSnapshot> byId;
+    private final Cache<String, Long> idByEmail;
+
+    @Autowired
+    public EmployeeCache(EmployeeRepository employeeRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${employees.cache.max-size:10000}") long maxSize,
+                         @Value("${employees.cache.ttl:PT10M}") Duration ttl) {
+        this.employeeRepository = employeeRepository;
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.idByEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "employees.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "employees.by-email");
+    }
+
+    public Optional<EmployeeSnapshot> findByEmail(String email) {
+        Long id = idByEmail.get(email, key -> employeeRepository.findByEmail(key)
+                .map(employee -> {
+                    // Only fills a missing snapshot; a concurrent write-through always wins
+                    EmployeeSnapshot snapshot = EmployeeSnapshot.of(employee);
+                    byId.asMap().putIfAbsent(snapshot.id(), snapshot);
+                    return snapshot.id();
+                })
+                .orElse(null));
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<EmployeeSnapshot> snapshot = findById(id);
+        if (snapshot.isPresent() && !snapshot.get().email().equals(email)) {
+            // The employee has changed their email since this index entry was made
+            idByEmail.invalidate(email);
+            return Optional.empty();
+        }
+        return snapshot;
+    }
+
+    public Optional<EmployeeSnapshot> findById(Long id) {
+        return Optional.ofNullable(byId.get(id, key -> employeeRepository.findById(key)
+                .map(EmployeeSnapshot::of)
+                .orElse(null)));
+    }
+
+    // Write-through after an employee has been saved
+    public void put(Employee employee) {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(employee);
+        byId.put(snapshot.id(), snapshot);
+        idByEmail.put(snapshot.email(), snapshot.id());
+    }
+}
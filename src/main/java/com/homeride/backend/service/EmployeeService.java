@@ -26,12 +26,17 @@ public class EmployeeService implements UserDetailsService {
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final FileStorageService fileStorageService;
+    private final TokenPrincipalService tokenPrincipalService;
+    private final EmployeeCache employeeCache;
 
     @Autowired
-    public EmployeeService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, FileStorageService fileStorageService) {
+    public EmployeeService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, FileStorageService fileStorageService,
+                           TokenPrincipalService tokenPrincipalService, EmployeeCache employeeCache) {
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
         this.fileStorageService = fileStorageService;
+        this.tokenPrincipalService = tokenPrincipalService;
+        this.employeeCache = employeeCache;
     }
 
     public Employee findEmployeeByEmail(String email) {
@@ -82,7 +87,7 @@ public class EmployeeService implements UserDetailsService {
         if (updateDTO.getPhoneNumber() != null) {
             employee.setPhoneNumber(updateDTO.getPhoneNumber());
         }
-        return employeeRepository.save(employee);
+        return saveAndCache(employee);
     }
 
     public Employee updateProfilePicture(String email, MultipartFile file) {
@@ -90,13 +95,13 @@ public class EmployeeService implements UserDetailsService {
         // FileStorageService already returns the complete Cloudinary URL
         String profilePictureUrl = fileStorageService.store(file);
         employee.setProfilePictureUrl(profilePictureUrl);
-        return employeeRepository.save(employee);
+        return saveAndCache(employee);
     }
 
     public Employee removeProfilePicture(String email) {
         Employee employee = findEmployeeByEmail(email);
         employee.setProfilePictureUrl(null);
-        return employeeRepository.save(employee);
+        return saveAndCache(employee);
     }
 
     @Override
@@ -115,8 +120,17 @@ public class EmployeeService implements UserDetailsService {
         if (updateRequest.getTravelCredit() != null) {
             employee.setTravelCredit(updateRequest.getTravelCredit());
         }
-        return employeeRepository.save(employee);
+        Employee saved = saveAndCache(employee);
+        tokenPrincipalService.evict(saved.getEmail()); // Tokens carrying the old role stop working right away
+        return saved;
+    }
+    // Keeps EmployeeCache in step with every profile change
+    private Employee saveAndCache(Employee employee) {
+        Employee saved = employeeRepository.save(employee);
+        employeeCache.put(saved);
+        return saved;
     }
+
     public Employee findEmployeeById(Long id) {
         return employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
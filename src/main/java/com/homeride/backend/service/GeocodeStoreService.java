@@ -0,0 +1,110 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.maps.model.LatLng;
+import com.homeride.backend.model.GeocodeEntry;
+import com.homeride.backend.repository.GeocodeEntryRepository;
+import com.homeride.backend.repository.ReverseGeocodeEntryRepository;
+import com.homeride.backend.util.LocationNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+
+/**
+ * Durable store of geocoding results with an in-memory near-cache in front of it.
+ * Only successful lookups are stored; misses are always retried against the API.
+ */
+@Service
+public class GeocodeStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodeStoreService.class);
+
+    private final GeocodeEntryRepository geocodeEntryRepository;
+    private final ReverseGeocodeEntryRepository reverseGeocodeEntryRepository;
+    private final Cache<String, LatLng> geocodeNearCache;
+    private final Cache<String, String> reverseGeocodeNearCache;
+    private final int nearCacheMaxSize;
+
+    @Autowired
+    public GeocodeStoreService(GeocodeEntryRepository geocodeEntryRepository,
+                               ReverseGeocodeEntryRepository reverseGeocodeEntryRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${google.maps.geocode.near-cache.max-size:10000}") int nearCacheMaxSize) {
+        this.geocodeEntryRepository = geocodeEntryRepository;
+        this.reverseGeocodeEntryRepository = reverseGeocodeEntryRepository;
+        this.nearCacheMaxSize = nearCacheMaxSize;
+        this.geocodeNearCache = Caffeine.newBuilder().maximumSize(nearCacheMaxSize).recordStats().build();
+        this.reverseGeocodeNearCache = Caffeine.newBuilder().maximumSize(nearCacheMaxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, geocodeNearCache, "google.geocode");
+        CaffeineCacheMetrics.monitor(meterRegistry, reverseGeocodeNearCache, "google.reverse-geocode");
+    }
+
+    public LatLng findGeocode(String address) {
+        String key = LocationNormalizer.lookupKey(address);
+        LatLng cached = geocodeNearCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return geocodeEntryRepository.findById(key)
+                .map(entry -> {
+                    LatLng location = new LatLng(entry.getLat(), entry.getLng());
+                    geocodeNearCache.put(key, location);
+                    return location;
+                })
+                .orElse(null);
+    }
+
+    @Transactional
+    public void saveGeocode(String address, LatLng location) {
+        String key = LocationNormalizer.lookupKey(address);
+        geocodeEntryRepository.insertIfAbsent(key, location.lat, location.lng);
+        geocodeNearCache.put(key, location);
+    }
+
+    public String findReverseGeocode(LatLng location) {
+        String key = cellKey(location);
+        String cached = reverseGeocodeNearCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return reverseGeocodeEntryRepository.findById(key)
+                .map(entry -> {
+                    reverseGeocodeNearCache.put(key, entry.getAddress());
+                    return entry.getAddress();
+                })
+                .orElse(null);
+    }
+
+    @Transactional
+    public void saveReverseGeocode(LatLng location, String address) {
+        String key = cellKey(location);
+        reverseGeocodeEntryRepository.insertIfAbsent(key, address);
+        reverseGeocodeNearCache.put(key, address);
+    }
+
+    // Preloads the newest entries into memory (stopovers geocoded before the store existed are seeded by V10)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        for (GeocodeEntry entry : geocodeEntryRepository.findMostRecent(PageRequest.of(0, nearCacheMaxSize))) {
+            geocodeNearCache.put(entry.getAddressKey(), new LatLng(entry.getLat(), entry.getLng()));
+        }
+        logger.info("Geocode store warm-up: preloaded {} entries", geocodeNearCache.estimatedSize());
+    }
+
+    // About 11m at 4 decimal places, close enough for a pickup point address
+    private static String cellKey(LatLng location) {
+        return String.format(Locale.ROOT, "%.4f,%.4f", location.lat, location.lng);
+    }
+}
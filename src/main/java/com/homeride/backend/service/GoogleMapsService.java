@@ -7,31 +7,60 @@ import com.google.maps.model.DirectionsResult;
 import com.google.maps.model.DirectionsRoute;
 import com.google.maps.model.GeocodingResult;
 import com.google.maps.model.LatLng;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.homeride.backend.dto.TravelInfo;
+import com.homeride.backend.exception.RateLimitExceededException;
+import com.homeride.backend.util.LocationNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import com.google.maps.DirectionsApiRequest;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class GoogleMapsService {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleMapsService.class);
     private final GeoApiContext geoApiContext;
+    private final GeocodeStoreService geocodeStoreService;
+    private final RemoteLookupGateway remoteLookupGateway;
 
     @Value("${google.maps.api.key:}")
     private String apiKey;
 
     private static final TravelInfo DEFAULT_TRAVEL_INFO = new TravelInfo(200, 180.0, "", "Default Route", new ArrayList<>());
 
+    // Directions results keyed by normalized (origin, destination, waypoints). Holding the in-flight
+    // future means concurrent identical lookups share a single API call; failed lookups are not kept.
+    private final AsyncCache<RouteKey, TravelInfo> directionsCache;
+
     @Autowired
-    public GoogleMapsService(GeoApiContext geoApiContext) {
+    public GoogleMapsService(GeoApiContext geoApiContext,
+                             GeocodeStoreService geocodeStoreService,
+                             RemoteLookupGateway remoteLookupGateway,
+                             MeterRegistry meterRegistry,
+                             @Value("${google.maps.directions.cache.max-size:5000}") long cacheMaxSize,
+                             @Value("${google.maps.directions.cache.ttl:PT12H}") Duration cacheTtl) {
         this.geoApiContext = geoApiContext;
+        this.geocodeStoreService = geocodeStoreService;
+        this.remoteLookupGateway = remoteLookupGateway;
+        this.directionsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, directionsCache, "google.directions");
     }
 
     /**
@@ -44,23 +73,13 @@ public class GoogleMapsService {
             return 180.0;
         }
         try {
-            DirectionsApiRequest request = DirectionsApi.newRequest(geoApiContext)
-                    .origin(origin)
-                    .destination(destination);
-
-            DirectionsResult result = request.await();
-
-            if (result.routes != null && result.routes.length > 0) {
-                DirectionsRoute route = result.routes[0];
-                long totalDistanceInMeters = Arrays.stream(route.legs)
-                        .mapToLong(leg -> leg.distance.inMeters)
-                        .sum();
-                double distanceInKm = totalDistanceInMeters / 1000.0;
-
-                logger.info("Direct Distance (for pricing): {} to {} = {:.2f}km",
-                        origin, destination, distanceInKm);
-                return distanceInKm;
-            }
+            // Same cache entry as a stopover-free getTravelInfoWithStopovers call
+            double distanceInKm = getDirections(origin, destination, null).getDistanceInKm();
+            logger.info("Direct Distance (for pricing): {} to {} = {}km", origin, destination, distanceInKm);
+            return distanceInKm;
+        } catch (RateLimitExceededException e) {
+            // Pricing from the placeholder distance would be wrong, so the caller has to retry
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching direct distance from Google Maps API: {}", e.getMessage());
         }
@@ -77,54 +96,99 @@ public class GoogleMapsService {
             return DEFAULT_TRAVEL_INFO;
         }
         try {
-            DirectionsApiRequest request = DirectionsApi.newRequest(geoApiContext)
-                    .origin(origin)
-                    .destination(destination);
-
-            if (stops != null && stops.length > 0) {
-                request.waypoints(stops);
-            }
-
-            DirectionsResult result = request.await();
-
-            if (result.routes != null && result.routes.length > 0) {
-                DirectionsRoute route = result.routes[0];
-                String polyline = route.overviewPolyline.getEncodedPath();
-                String summary = route.summary;
-
-                long totalDurationInSeconds = Arrays.stream(route.legs)
-                        .mapToLong(leg -> leg.duration.inSeconds)
-                        .sum();
-                long totalDistanceInMeters = Arrays.stream(route.legs)
-                        .mapToLong(leg -> leg.distance.inMeters)
-                        .sum();
-
-                int durationInMinutes = (int) (totalDurationInSeconds / 60);
-                double distanceInKm = totalDistanceInMeters / 1000.0;
-
-                // Calculate segment distances (these are the actual leg distances with stopovers)
-                List<Double> segmentDistances = new ArrayList<>();
-                for (int i = 0; i < route.legs.length; i++) {
-                    double segmentDistanceKm = route.legs[i].distance.inMeters / 1000.0;
-                    segmentDistances.add(segmentDistanceKm);
-                    logger.debug("Segment {}: {} → {} = {:.2f}km",
-                            i + 1,
-                            route.legs[i].startAddress,
-                            route.legs[i].endAddress,
-                            segmentDistanceKm);
-                }
-
-                logger.info("Route with Stopovers - Total Distance: {:.2f}km, Duration: {}min, Segments: {}",
-                        distanceInKm, durationInMinutes, segmentDistances.size());
-
-                return new TravelInfo(durationInMinutes, distanceInKm, polyline, summary, segmentDistances);
-            }
+            TravelInfo travelInfo = getDirections(origin, destination, stops);
+            // Callers get their own copy so the cached entry can't be modified
+            return new TravelInfo(travelInfo.getDurationInMinutes(), travelInfo.getDistanceInKm(),
+                    travelInfo.getPolyline(), travelInfo.getSummary(), new ArrayList<>(travelInfo.getSegmentDistances()));
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching travel info with stopovers from Google Maps API: {}", e.getMessage());
         }
         return DEFAULT_TRAVEL_INFO;
     }
 
+    private TravelInfo getDirections(String origin, String destination, String[] stops) {
+        RouteKey key = RouteKey.of(origin, destination, stops);
+        // The cache installs our future only on a miss (recording hit/miss stats); the caller that
+        // installed it runs the lookup on its own thread and everyone else waits on the same future
+        CompletableFuture<TravelInfo> created = new CompletableFuture<>();
+        CompletableFuture<TravelInfo> future = directionsCache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(fetchDirections(origin, destination, stops));
+            } catch (Exception e) {
+                // Completing exceptionally drops the entry, so the next call retries
+                created.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private TravelInfo fetchDirections(String origin, String destination, String[] stops) throws Exception {
+        DirectionsApiRequest request = DirectionsApi.newRequest(geoApiContext)
+                .origin(origin)
+                .destination(destination);
+
+        if (stops != null && stops.length > 0) {
+            request.waypoints(stops);
+        }
+
+        DirectionsResult result = remoteLookupGateway.execute(RemoteLookupGateway.GOOGLE_DIRECTIONS,
+                RouteKey.of(origin, destination, stops).toString(), request::await);
+
+        if (result.routes == null || result.routes.length == 0) {
+            throw new IllegalStateException("No route found from " + origin + " to " + destination);
+        }
+
+        DirectionsRoute route = result.routes[0];
+        String polyline = route.overviewPolyline.getEncodedPath();
+        String summary = route.summary;
+
+        long totalDurationInSeconds = Arrays.stream(route.legs)
+                .mapToLong(leg -> leg.duration.inSeconds)
+                .sum();
+        long totalDistanceInMeters = Arrays.stream(route.legs)
+                .mapToLong(leg -> leg.distance.inMeters)
+                .sum();
+
+        int durationInMinutes = (int) (totalDurationInSeconds / 60);
+        double distanceInKm = totalDistanceInMeters / 1000.0;
+
+        // Calculate segment distances (these are the actual leg distances with stopovers)
+        List<Double> segmentDistances = new ArrayList<>();
+        for (int i = 0; i < route.legs.length; i++) {
+            double segmentDistanceKm = route.legs[i].distance.inMeters / 1000.0;
+            segmentDistances.add(segmentDistanceKm);
+            logger.debug("Segment {}: {} → {} = {}km",
+                    i + 1,
+                    route.legs[i].startAddress,
+                    route.legs[i].endAddress,
+                    segmentDistanceKm);
+        }
+
+        logger.info("Route with Stopovers - Total Distance: {}km, Duration: {}min, Segments: {}",
+                distanceInKm, durationInMinutes, segmentDistances.size());
+
+        return new TravelInfo(durationInMinutes, distanceInKm, polyline, summary, List.copyOf(segmentDistances));
+    }
+
+    private record RouteKey(String origin, String destination, List<String> waypoints) {
+        static RouteKey of(String origin, String destination, String[] stops) {
+            List<String> waypoints = stops == null ? List.of() : Arrays.stream(stops)
+                    .map(LocationNormalizer::lookupKey)
+                    .toList();
+            return new RouteKey(LocationNormalizer.lookupKey(origin), LocationNormalizer.lookupKey(destination), waypoints);
+        }
+    }
+
     /**
      * Get complete travel info (kept for backward compatibility)
      * Now combines direct distance for pricing with stopover route for logistics
@@ -134,14 +198,22 @@ public class GoogleMapsService {
     }
 
     public LatLng geocodeAddress(String address) {
+        LatLng stored = storedGeocode(address);
+        if (stored != null) {
+            return stored;
+        }
         if (apiKey == null || apiKey.trim().isEmpty()) {
             logger.warn("Google Maps API key is not configured. Geocoding disabled.");
             return null;
         }
         try {
-            GeocodingResult[] results = GeocodingApi.geocode(geoApiContext, address).await();
+            GeocodingResult[] results = remoteLookupGateway.execute(RemoteLookupGateway.GOOGLE_GEOCODING,
+                "geocode|" + LocationNormalizer.lookupKey(address),
+                () -> GeocodingApi.geocode(geoApiContext, address).await());
             if (results != null && results.length > 0) {
-                return results[0].geometry.location;
+                LatLng location = results[0].geometry.location;
+                storeGeocode(address, location);
+                return location;
             }
         } catch (Exception e) {
             logger.error("Error during geocoding for address '{}': {}", address, e.getMessage());
@@ -150,18 +222,62 @@ public class GoogleMapsService {
     }
 
     public String reverseGeocode(LatLng location) {
+        String stored = storedReverseGeocode(location);
+        if (stored != null) {
+            return stored;
+        }
         if (apiKey == null || apiKey.trim().isEmpty()) {
             logger.warn("Google Maps API key is not configured. Reverse geocoding disabled.");
             return "Service unavailable";
         }
         try {
-            GeocodingResult[] results = GeocodingApi.reverseGeocode(geoApiContext, location).await();
+            GeocodingResult[] results = remoteLookupGateway.execute(RemoteLookupGateway.GOOGLE_GEOCODING,
+                "reverse|" + location,
+                () -> GeocodingApi.reverseGeocode(geoApiContext, location).await());
             if (results != null && results.length > 0) {
-                return results[0].formattedAddress;
+                String address = results[0].formattedAddress;
+                storeReverseGeocode(location, address);
+                return address;
             }
         } catch (Exception e) {
             logger.error("Error during reverse geocoding for location '{}': {}", location, e.getMessage());
         }
         return "Unknown location";
     }
-}
\ No newline at end of file
+
+    // The geocode store is only a cache in front of the API: a failed read falls through to the API
+    private LatLng storedGeocode(String address) {
+        try {
+            return geocodeStoreService.findGeocode(address);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read stored geocode for address '{}': {}", address, e.getMessage());
+            return null;
+        }
+    }
+
+    private String storedReverseGeocode(LatLng location) {
+        try {
+            return geocodeStoreService.findReverseGeocode(location);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read stored reverse geocode for location '{}': {}", location, e.getMessage());
+            return null;
+        }
+    }
+
+    // A failed write to the geocode store must not discard a result the API already returned
+    private void storeGeocode(String address, LatLng location) {
+        try {
+            geocodeStoreService.saveGeocode(address, location);
+        } catch (Exception e) {
+            logger.warn("Could not store geocode for address '{}': {}", address, e.getMessage());
+        }
+    }
+
+    private void storeReverseGeocode(LatLng location, String address) {
+        try {
+            geocodeStoreService.saveReverseGeocode(location, address);
+        } catch (Exception e) {
+            logger.warn("Could not store reverse geocode for location '{}': {}", location, e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.google.maps.GeoApiContext;
 import com.google.maps.PlacesApi;
 import com.google.maps.model.AutocompletePrediction;
 import com.google.maps.model.PlaceAutocompleteType;
+import com.homeride.backend.util.LocationNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,33 +26,61 @@ public class GooglePlacesService {
     @Value("${google.maps.api.key:}")
     private String apiKey;
 
+    private static final String SOURCE = "google-places";
+    private static final int SUGGESTION_LIMIT = 5;
+
+    private final LocationSuggestionIndex locationSuggestionIndex;
+    private final RemoteLookupGateway remoteLookupGateway;
+
     @Autowired
-    public GooglePlacesService(GeoApiContext geoApiContext) {
+    public GooglePlacesService(GeoApiContext geoApiContext,
+                               LocationSuggestionIndex locationSuggestionIndex,
+                               RemoteLookupGateway remoteLookupGateway) {
         this.geoApiContext = geoApiContext;
+        this.locationSuggestionIndex = locationSuggestionIndex;
+        this.remoteLookupGateway = remoteLookupGateway;
     }
 
-    public List<String> getAutocompleteSuggestions(String query) {
+    /**
+     * {@code clientKey} is the authenticated caller's name, or null for anonymous callers, who are
+     * not debounced. Keystrokes superseded by a newer query from the same caller within the debounce
+     * window get an empty list. The remote call runs on the autocomplete executor, never the request thread.
+     */
+    public CompletableFuture<List<String>> getAutocompleteSuggestions(String query, String clientKey) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             logger.warn("Google Places API key is not configured. Autocomplete disabled.");
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
         if (query == null || query.trim().isEmpty()) {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
+        // Most keystrokes are answered from the local index; the API is only asked on a miss
+        List<String> local = locationSuggestionIndex.suggest(SOURCE, query, SUGGESTION_LIMIT);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+
+        return remoteLookupGateway.autocomplete(RemoteLookupGateway.GOOGLE_PLACES, clientKey, query,
+                () -> fetchSuggestions(query), Collections.emptyList());
+    }
+
+    private List<String> fetchSuggestions(String query) {
         try {
-            AutocompletePrediction[] predictions = PlacesApi
-                    .queryAutocomplete(geoApiContext, query)
-                    .await();
+            AutocompletePrediction[] predictions = remoteLookupGateway.execute(RemoteLookupGateway.GOOGLE_PLACES,
+                    LocationNormalizer.lookupKey(query),
+                    () -> PlacesApi.queryAutocomplete(geoApiContext, query).await());
 
             if (predictions == null || predictions.length == 0) {
                 return Collections.emptyList();
             }
 
-            return Arrays.stream(predictions)
+            List<String> suggestions = Arrays.stream(predictions)
                     .map(p -> p.description)
                     .collect(Collectors.toList());
+            locationSuggestionIndex.addRemoteResults(SOURCE, query, suggestions);
+            return suggestions;
 
         } catch (Exception e) {
             logger.error("Error fetching autocomplete suggestions: {}", e.getMessage());
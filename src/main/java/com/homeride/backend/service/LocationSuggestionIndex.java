@@ -0,0 +1,118 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.homeride.backend.repository.RideRequestRepository;
+import com.homeride.backend.util.LocationNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Local autocomplete index over location names, kept as a sorted map so a prefix lookup is a
+ * single range scan. Seeded from locations stored on rides and stopovers, then grown with the
+ * suggestions returned by remote autocomplete services. Once {@code maxEntries} is reached the
+ * least used names are evicted to make room.
+ */
+@Component
+public class LocationSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationSuggestionIndex.class);
+
+    // lookup key -> display text
+    private final ConcurrentSkipListMap<String, String> locations = new ConcurrentSkipListMap<>();
+
+    // Bounded mirror of the index keys; its size-based eviction decides which names leave the index
+    private final Cache<String, String> retained;
+
+    // "source|query" -> what the remote service answered. Remote suggestions often don't start with
+    // the typed text ("rgia" -> "Rajiv Gandhi International Airport"), so a prefix scan alone can't replay them.
+    private final Cache<String, List<String>> remoteResults;
+
+    private final RideRequestRepository rideRequestRepository;
+
+    @Autowired
+    public LocationSuggestionIndex(RideRequestRepository rideRequestRepository,
+                                   @Value("${locations.suggestions.max-entries:50000}") int maxEntries,
+                                   @Value("${locations.suggestions.fetched-query-ttl:PT24H}") Duration fetchedQueryTtl) {
+        this.rideRequestRepository = rideRequestRepository;
+        this.retained = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .evictionListener((String key, String display, RemovalCause cause) -> locations.remove(key, display))
+                .build();
+        this.remoteResults = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(fetchedQueryTtl)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromStoredLocations() {
+        addAll(rideRequestRepository.findDistinctLocationNames());
+        logger.info("Location suggestion index seeded with {} entries", locations.size());
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions for {@code query}, or null when the index can't answer
+     * on its own and the caller should ask the remote service for {@code source}.
+     */
+    public List<String> suggest(String source, String query, int limit) {
+        String prefix = LocationNormalizer.lookupKey(query);
+        NavigableMap<String, String> matches = locations.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+        List<String> suggestions = new ArrayList<>(limit);
+        for (Map.Entry<String, String> match : matches.entrySet()) {
+            if (suggestions.size() == limit) break;
+            retained.getIfPresent(match.getKey()); // Counts as a use for eviction
+            suggestions.add(match.getValue());
+        }
+        if (suggestions.size() == limit) {
+            return suggestions;
+        }
+
+        List<String> remote = remoteResults.getIfPresent(source + "|" + prefix);
+        if (remote == null) {
+            return null;
+        }
+        // Same answer as last time first, then any local matches it didn't include
+        Set<String> merged = new LinkedHashSet<>(remote);
+        merged.addAll(suggestions);
+        return merged.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    // Records the remote answer for a query so the same keystroke is served locally next time
+    public void addRemoteResults(String source, String query, Collection<String> results) {
+        addAll(results);
+        remoteResults.put(source + "|" + LocationNormalizer.lookupKey(query), results.stream()
+                .filter(name -> name != null && !name.isBlank())
+                .map(String::trim)
+                .toList());
+    }
+
+    private void addAll(Collection<String> names) {
+        for (String name : names) {
+            if (name == null || name.isBlank()) continue;
+            String key = LocationNormalizer.lookupKey(name);
+            String display = name.trim();
+            if (locations.putIfAbsent(key, display) == null) {
+                retained.put(key, display);
+            }
+        }
+    }
+}
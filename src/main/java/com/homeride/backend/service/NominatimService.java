@@ -0,0 +1,88 @@
+package com.homeride.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeride.backend.util.LocationNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Location autocomplete backed by OpenStreetMap Nominatim, answered from the local
+ * suggestion index whenever it can.
+ */
+@Service
+public class NominatimService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NominatimService.class);
+
+    // This is a free, open-source alternative to Google Places API.
+    // It's great for development and non-commercial projects.
+    private static final String NOMINATIM_API_URL = "https://nominatim.openstreetmap.org/search";
+    private static final String SOURCE = "nominatim";
+    private static final int SUGGESTION_LIMIT = 5;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final LocationSuggestionIndex locationSuggestionIndex;
+    private final RemoteLookupGateway remoteLookupGateway;
+
+    @Autowired
+    public NominatimService(RestTemplateBuilder restTemplateBuilder,
+                            ObjectMapper objectMapper,
+                            LocationSuggestionIndex locationSuggestionIndex,
+                            RemoteLookupGateway remoteLookupGateway) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(3))
+                .setReadTimeout(Duration.ofSeconds(5))
+                .defaultHeader("User-Agent", "homeride-backend")
+                .build();
+        this.objectMapper = objectMapper;
+        this.locationSuggestionIndex = locationSuggestionIndex;
+        this.remoteLookupGateway = remoteLookupGateway;
+    }
+
+    /**
+     * Debounced per {@code clientKey} (the authenticated caller's name); the remote call runs on the
+     * autocomplete executor, never the request thread.
+     */
+    public CompletableFuture<List<String>> getAutocompleteSuggestions(String query, String clientKey) {
+        List<String> local = locationSuggestionIndex.suggest(SOURCE, query, SUGGESTION_LIMIT);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return remoteLookupGateway.autocomplete(RemoteLookupGateway.NOMINATIM, clientKey, query,
+                () -> fetchSuggestions(query), Collections.emptyList());
+    }
+
+    private List<String> fetchSuggestions(String query) {
+        String uri = UriComponentsBuilder.fromHttpUrl(NOMINATIM_API_URL)
+                .queryParam("q", query)
+                .queryParam("format", "json")
+                .queryParam("limit", SUGGESTION_LIMIT)
+                .toUriString();
+
+        try {
+            String response = remoteLookupGateway.execute(RemoteLookupGateway.NOMINATIM,
+                    LocationNormalizer.lookupKey(query),
+                    () -> restTemplate.getForObject(uri, String.class));
+            JsonNode root = objectMapper.readTree(response);
+            List<String> suggestions = root.findValuesAsText("display_name");
+
+            locationSuggestionIndex.addRemoteResults(SOURCE, query, suggestions);
+            return suggestions;
+        } catch (Exception e) {
+            logger.error("Error fetching Nominatim suggestions for '{}': {}", query, e.getMessage());
+            throw new RuntimeException("Error fetching locations", e);
+        }
+    }
+}
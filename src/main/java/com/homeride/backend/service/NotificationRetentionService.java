@@ -0,0 +1,66 @@
+package com.homeride.backend.service;
+
+import com.homeride.backend.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Purges read notifications older than {@code notifications.retention.read-ttl}. Rows are deleted
+ * in small chunks, each in its own transaction, so no single statement holds locks for long.
+ * Unread notifications are never purged.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration readTtl;
+    private final int chunkSize;
+    private final Duration pause;
+
+    @Autowired
+    public NotificationRetentionService(NotificationRepository notificationRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${notifications.retention.read-ttl:P30D}") Duration readTtl,
+                                        @Value("${notifications.retention.chunk-size:1000}") int chunkSize,
+                                        @Value("${notifications.retention.pause:PT0.1S}") Duration pause) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.readTtl = readTtl;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void purgeOldReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(readTtl);
+        long purged = 0;
+        try {
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status -> notificationRepository.deleteReadBefore(cutoff, chunkSize));
+                purged += deleted;
+                if (deleted < chunkSize) {
+                    break;
+                }
+                // Give concurrent writers room between chunks
+                Thread.sleep(pause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Notification retention stopped after purging {} rows", purged, e);
+            return;
+        }
+        logger.info("Purged {} read notifications created before {}", purged, cutoff);
+    }
+}
@@ -1,41 +1,122 @@
 package com.homeride.backend.service;
 
+import com.homeride.backend.dto.EmployeeSnapshot;
+import com.homeride.backend.dto.NotificationDTO;
 import com.homeride.backend.model.Employee;
 import com.homeride.backend.model.Notification;
 import com.homeride.backend.repository.NotificationRepository;
+import com.homeride.backend.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 
 @Service
 public class NotificationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    static final String USER_QUEUE = "/queue/notifications";
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    @Autowired
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    // createdAt is stamped before commit, so a row can become visible after a client has already seen
+    // newer ones; the delta re-reads this window behind the client's watermark to pick such rows up
+    @Value("${notifications.delta.overlap:PT5S}")
+    private Duration deltaOverlap;
+
+    public record NewNotification(Employee user, String message, String link, String type, Long rideId) {
+    }
+
     public void createNotification(Employee user, String message, String link, String type, Long rideId) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setMessage(message);
-        notification.setLink(link);
-        notification.setType(type);
-        notification.setRideId(rideId);
-        notificationRepository.save(notification);
-    }
-
-    public void createOrUpdateChatNotification(Employee user, String message, String link, Long rideId) {
-        Optional<Notification> existingNotification = notificationRepository.findFirstByUserAndRideIdAndTypeAndIsReadFalse(user, rideId, "CHAT_MESSAGE");
-
-        if (existingNotification.isPresent()) {
-            // Notification already exists, just update the timestamp to bump it up
-            Notification notification = existingNotification.get();
-            notification.setCreatedAt(LocalDateTime.now()); // Update timestamp
-            notificationRepository.save(notification);
-        } else {
-            // No unread chat notification for this ride, create a new one
-            createNotification(user, message, link, "CHAT_MESSAGE", rideId);
+        createNotifications(List.of(new NewNotification(user, message, link, type, rideId)));
+    }
+
+    // Use for multi-recipient events: ids come from the pooled notifications_seq, so the inserts batch
+    // at commit. createdAt is stamped here (at the column's microsecond precision) rather than by
+    // the database, so the pushed DTO carries the stored value without flushing early.
+    @Transactional
+    public void createNotifications(List<NewNotification> newNotifications) {
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Notification> notifications = new ArrayList<>(newNotifications.size());
+        for (NewNotification newNotification : newNotifications) {
+            Notification notification = new Notification();
+            notification.setCreatedAt(createdAt);
+            notification.setUser(newNotification.user());
+            notification.setMessage(newNotification.message());
+            notification.setLink(newNotification.link());
+            notification.setType(newNotification.type());
+            notification.setRideId(newNotification.rideId());
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+
+        for (Notification notification : notifications) {
+            Long userId = notification.getUser().getId();
+            unreadNotificationCounter.addAfterCommit(userId, 1);
+            pushAfterCommit(userId, NotificationDTO.of(notification));
+        }
+    }
+
+    /**
+     * Unread notifications a reconnecting client may have missed since its (createdAt, id) watermark.
+     * The window reaches {@code notifications.delta.overlap} behind the watermark, so rows the client
+     * already holds can come back; clients dedupe by id.
+     */
+    public List<Notification> getUnreadSince(Long userId, LocalDateTime sinceCreatedAt, Long sinceId) {
+        return notificationRepository.findUnreadAfter(userId, sinceCreatedAt.minus(deltaOverlap), sinceId);
+    }
+
+    @Transactional
+    public void markAsRead(Long userId, Long notificationId) {
+        if (notificationRepository.markRead(notificationId, userId) > 0) {
+            unreadNotificationCounter.addAfterCommit(userId, -1);
+        }
+    }
+
+    @Transactional
+    public void markAllAsRead(Long userId) {
+        notificationRepository.markAllRead(userId);
+        unreadNotificationCounter.resetAfterCommit(userId);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadNotificationCounter.get(userId);
+    }
+
+    // Sends to /user/queue/notifications once the surrounding transaction (if any) has committed
+    public void pushAfterCommit(Long userId, NotificationDTO notification) {
+        TransactionHooks.afterCommit(() -> push(userId, notification));
+    }
+
+    private void push(Long userId, NotificationDTO notification) {
+        try {
+            employeeCache.findById(userId)
+                    .map(EmployeeSnapshot::email)
+                    .ifPresent(email -> messagingTemplate.convertAndSendToUser(email, USER_QUEUE, notification));
+        } catch (Exception e) {
+            // The row is committed; clients still pick it up from GET /api/notifications?since=
+            logger.warn("Failed to push notification {} to user {}: {}", notification.getId(), userId, e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
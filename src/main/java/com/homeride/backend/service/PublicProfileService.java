@@ -10,7 +10,6 @@ import com.homeride.backend.repository.RideRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.List;
-import java.util.OptionalDouble;
 
 @Service
 public class PublicProfileService {
@@ -19,13 +18,15 @@ public class PublicProfileService {
     private final RatingRepository ratingRepository;
     private final RideRequestRepository rideRequestRepository;
     private final RideParticipantRepository rideParticipantRepository;
+    private final RatingService ratingService;
 
     @Autowired
-    public PublicProfileService(EmployeeRepository employeeRepository, RatingRepository ratingRepository, RideRequestRepository rideRequestRepository, RideParticipantRepository rideParticipantRepository) {
+    public PublicProfileService(EmployeeRepository employeeRepository, RatingRepository ratingRepository, RideRequestRepository rideRequestRepository, RideParticipantRepository rideParticipantRepository, RatingService ratingService) {
         this.employeeRepository = employeeRepository;
         this.ratingRepository = ratingRepository;
         this.rideRequestRepository = rideRequestRepository;
         this.rideParticipantRepository = rideParticipantRepository;
+        this.ratingService = ratingService;
     }
 
     public PublicProfileDTO getPublicProfile(Long employeeId) {
@@ -44,11 +45,7 @@ public class PublicProfileService {
         List<Rating> receivedRatings = ratingRepository.findByRateeId(employee.getId());
         dto.setReceivedRatings(receivedRatings);
 
-        // Calculate average rating
-        OptionalDouble average = receivedRatings.stream()
-                .mapToInt(Rating::getScore)
-                .average();
-        dto.setAverageRating(average.isPresent() ? average.getAsDouble() : null);
+        dto.setAverageRating(ratingService.calculateAverageRating(employee.getId()));
 
         // Calculate total rides
         long ridesAsRequester = rideRequestRepository.countByRequester(employee);
@@ -1,36 +1,55 @@
 // backend/src/main/java/com/homeride/backend/service/RatingService.java
 package com.homeride.backend.service;
 
+import com.homeride.backend.dto.EmployeeSnapshot;
 import com.homeride.backend.dto.RatingDTO;
 import com.homeride.backend.model.Employee;
 import com.homeride.backend.model.Rating;
+import com.homeride.backend.model.RatingAggregate;
 import com.homeride.backend.model.RideRequest;
 import com.homeride.backend.repository.EmployeeRepository;
+import com.homeride.backend.repository.RatingAggregateRepository;
 import com.homeride.backend.repository.RatingRepository;
 import com.homeride.backend.repository.RideRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RatingService {
 
     private final RatingRepository ratingRepository;
+    private final RatingAggregateRepository ratingAggregateRepository;
     private final EmployeeRepository employeeRepository;
     private final RideRequestRepository rideRequestRepository;
     private final NotificationService notificationService;
+    private final EmployeeCache employeeCache;
 
     @Autowired
     public RatingService(RatingRepository ratingRepository,
+                         RatingAggregateRepository ratingAggregateRepository,
                          EmployeeRepository employeeRepository,
                          RideRequestRepository rideRequestRepository,
-                         NotificationService notificationService) {
+                         NotificationService notificationService,
+                         EmployeeCache employeeCache) {
         this.ratingRepository = ratingRepository;
+        this.ratingAggregateRepository = ratingAggregateRepository;
         this.employeeRepository = employeeRepository;
         this.rideRequestRepository = rideRequestRepository;
         this.notificationService = notificationService;
+        this.employeeCache = employeeCache;
     }
 
+    @Transactional
     public Rating submitRating(RatingDTO ratingDTO, String raterEmail) {
         Employee rater = employeeRepository.findByEmail(raterEmail)
                 .orElseThrow(() -> new RuntimeException("Rater not found"));
@@ -53,6 +72,7 @@ public class RatingService {
         newRating.setComment(ratingDTO.getComment());
 
         Rating savedRating = ratingRepository.save(newRating);
+        ratingAggregateRepository.addScore(ratee.getId(), savedRating.getScore());
 
         // CREATE NOTIFICATION FOR THE PERSON WHO WAS RATED
         String message = rater.getName() + " rated you for the ride from " +
@@ -68,39 +88,76 @@ public class RatingService {
         return savedRating;
     }
 
+    // Ratings and their aggregates change together, so both deletions run in one transaction
+    @Transactional
     public void deleteAllRatingsForRide(RideRequest rideRequest) {
-        ratingRepository.deleteAllByRideRequest(rideRequest);
+        deleteRatings(ratingRepository.findByRideRequest(rideRequest));
     }
 
     // Method to clean up ratings when a passenger leaves a ride.
+    @Transactional
     public void deleteRatingsForParticipantOnRide(RideRequest ride, Employee participant) {
-        ratingRepository.deleteAllByRideRequestAndRater(ride, participant);
-        ratingRepository.deleteAllByRideRequestAndRatee(ride, participant);
+        deleteRatings(ratingRepository.findByRideInvolving(ride.getId(), participant.getId()));
+    }
+
+    private void deleteRatings(List<Rating> ratings) {
+        for (Rating rating : ratings) {
+            ratingAggregateRepository.removeScore(rating.getRatee().getId(), rating.getScore());
+        }
+        ratingRepository.deleteAll(ratings);
     }
 
     public List<Rating> getRatingsForUser(String userEmail) {
-        Employee employee = employeeRepository.findByEmail(userEmail)
+        EmployeeSnapshot employee = employeeCache.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return ratingRepository.findByRateeId(employee.getId());
+        return ratingRepository.findByRateeId(employee.id());
     }
 
     public List<Rating> getRatingsGivenByUser(String raterEmail) {
-        Employee rater = employeeRepository.findByEmail(raterEmail)
+        EmployeeSnapshot rater = employeeCache.findByEmail(raterEmail)
                 .orElseThrow(() -> new RuntimeException("Rater not found"));
-        return ratingRepository.findByRater(rater);
+        return ratingRepository.findByRater(employeeRepository.getReferenceById(rater.id()));
     }
 
     public Double calculateAverageRating(Long employeeId) {
-        List<Rating> ratings = ratingRepository.findByRateeId(employeeId);
+        return getRatingAggregate(employeeId)
+                .map(RatingAggregate::getAverageRating)
+                .orElse(null);
+    }
 
-        if (ratings == null || ratings.isEmpty()) {
-            return null;
-        }
+    public Optional<RatingAggregate> getRatingAggregate(Long employeeId) {
+        return ratingAggregateRepository.findById(employeeId);
+    }
 
-        double sum = ratings.stream()
-                .mapToDouble(Rating::getScore)
-                .sum();
+    /**
+     * Looks up the rating aggregates of many employees with a single query.
+     * Employees that have never been rated are absent from the returned map.
+     */
+    public Map<Long, RatingAggregate> getRatingAggregates(Collection<Long> employeeIds) {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return Map.of();
+        }
+        return ratingAggregateRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(RatingAggregate::getEmployeeId, Function.identity()));
+    }
 
-        return sum / ratings.size();
+    /**
+     * Stamps {@code averageRating} on the requester of every ride in the list, resolving all
+     * distinct requesters with one aggregate lookup instead of one query per ride.
+     */
+    public void applyRequesterRatings(Collection<RideRequest> rides) {
+        Set<Long> requesterIds = rides.stream()
+                .map(RideRequest::getRequester)
+                .filter(Objects::nonNull)
+                .map(Employee::getId)
+                .collect(Collectors.toSet());
+        Map<Long, RatingAggregate> aggregates = getRatingAggregates(requesterIds);
+
+        for (RideRequest ride : rides) {
+            if (ride.getRequester() != null) {
+                RatingAggregate aggregate = aggregates.get(ride.getRequester().getId());
+                ride.getRequester().setAverageRating(aggregate != null ? aggregate.getAverageRating() : null);
+            }
+        }
     }
-}
\ No newline at end of file
+}
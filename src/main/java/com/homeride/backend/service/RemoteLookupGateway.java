@@ -0,0 +1,199 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.homeride.backend.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single path out to remote lookup services (Google Maps/Places, Nominatim).
+ * Identical in-flight calls are coalesced into one, each upstream has its own token-bucket
+ * rate limit, and every call is timed as {@code remote.lookup} with a latency histogram.
+ */
+@Component
+public class RemoteLookupGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteLookupGateway.class);
+
+    public static final String GOOGLE_DIRECTIONS = "google-directions";
+    public static final String GOOGLE_GEOCODING = "google-geocoding";
+    public static final String GOOGLE_PLACES = "google-places";
+    public static final String NOMINATIM = "nominatim";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> rateLimits = new ConcurrentHashMap<>();
+
+    // principal name -> latest autocomplete query, used to drop keystrokes superseded while debouncing
+    private final Cache<String, String> latestQueryByClient = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Duration debounceWindow;
+    private final Executor autocompleteExecutor;
+
+    @Autowired
+    public RemoteLookupGateway(MeterRegistry meterRegistry,
+                               Environment environment,
+                               @Value("${remote.autocomplete.debounce:PT0.15S}") Duration debounceWindow,
+                               @Qualifier("autocompleteExecutor") Executor autocompleteExecutor) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.debounceWindow = debounceWindow;
+        this.autocompleteExecutor = autocompleteExecutor;
+    }
+
+    /**
+     * Runs {@code call} against {@code upstream}, or waits for the identical call already in flight.
+     * Throws {@link RateLimitExceededException} when the upstream's rate limit is exhausted.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String upstream, String key, Callable<T> call) throws Exception {
+        String flightKey = upstream + "|" + key;
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, pending);
+        if (existing != null) {
+            Counter.builder("remote.lookup.coalesced").tag("upstream", upstream).register(meterRegistry).increment();
+            return (T) await(existing);
+        }
+
+        try {
+            pending.complete(invoke(upstream, call));
+        } catch (Exception e) {
+            pending.completeExceptionally(e);
+        } finally {
+            inFlight.remove(flightKey, pending);
+        }
+        return (T) await(pending);
+    }
+
+    /**
+     * Runs an autocomplete {@code lookup} against {@code upstream} once the caller's debounce window
+     * has passed, or completes with {@code superseded} if a newer query from the same caller arrived
+     * meanwhile. Nothing blocks while waiting: the window is a delayed check of the latest query, and
+     * the lookup itself runs on the autocomplete executor. A full executor fails the future with
+     * {@link RateLimitExceededException} instead of running the lookup on another thread.
+     */
+    public <T> CompletableFuture<T> autocomplete(String upstream, String clientKey, String query,
+                                                 Supplier<T> lookup, T superseded) {
+        return debounce(clientKey, query).thenCompose(latest -> {
+            if (!latest) {
+                return CompletableFuture.completedFuture(superseded);
+            }
+            try {
+                return CompletableFuture.supplyAsync(lookup, autocompleteExecutor);
+            } catch (RejectedExecutionException e) {
+                timer(upstream, "rejected").record(Duration.ZERO);
+                return CompletableFuture.failedFuture(new RateLimitExceededException(upstream));
+            }
+        });
+    }
+
+    // The delayed check only reads the latest query, so it is cheap enough for the JDK's delay scheduler thread
+    private CompletableFuture<Boolean> debounce(String clientKey, String query) {
+        if (clientKey == null || debounceWindow.isZero()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        latestQueryByClient.put(clientKey, query);
+        Executor delayed = CompletableFuture.delayedExecutor(debounceWindow.toMillis(), TimeUnit.MILLISECONDS, Runnable::run);
+        return CompletableFuture.supplyAsync(() -> {
+            boolean latest = query.equals(latestQueryByClient.getIfPresent(clientKey));
+            if (!latest) {
+                Counter.builder("remote.lookup.debounced").register(meterRegistry).increment();
+            }
+            return latest;
+        }, delayed);
+    }
+
+    private <T> T invoke(String upstream, Callable<T> call) throws Exception {
+        if (!rateLimits.computeIfAbsent(upstream, this::createBucket).tryAcquire()) {
+            timer(upstream, "rate_limited").record(Duration.ZERO);
+            logger.warn("Rate limit reached for upstream {}", upstream);
+            throw new RateLimitExceededException(upstream);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.call();
+        } catch (Exception e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            timer(upstream, outcome).record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private Timer timer(String upstream, String outcome) {
+        return Timer.builder("remote.lookup")
+                .tag("upstream", upstream)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private TokenBucket createBucket(String upstream) {
+        double permitsPerSecond = environment.getProperty(
+                "remote.rate-limit." + upstream + ".permits-per-second", Double.class, 10.0);
+        int burst = environment.getProperty("remote.rate-limit." + upstream + ".burst", Integer.class, 20);
+        return new TokenBucket(permitsPerSecond, burst);
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double permitsPerNano;
+        private final int capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double permitsPerSecond, int capacity) {
+            this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -17,17 +17,20 @@ public class RideCancellationService {
     private final RideParticipantRepository rideParticipantRepository;
     private final NotificationService notificationService;
     private final RatingService ratingService;
+    private final RideMembershipCache rideMembershipCache;
 
     @Autowired
     public RideCancellationService(
             RideRequestRepository rideRequestRepository,
             RideParticipantRepository rideParticipantRepository,
             NotificationService notificationService,
-            RatingService ratingService) {
+            RatingService ratingService,
+            RideMembershipCache rideMembershipCache) {
         this.rideRequestRepository = rideRequestRepository;
         this.rideParticipantRepository = rideParticipantRepository;
         this.notificationService = notificationService;
         this.ratingService = ratingService;
+        this.rideMembershipCache = rideMembershipCache;
     }
 
     @Transactional
@@ -47,6 +50,11 @@ public class RideCancellationService {
         ride.getParticipants().remove(participantToRemove);
         rideParticipantRepository.delete(participantToRemove);
 
+        // Give the seats back in the same transaction as the delete
+        int seats = participantToRemove.getNumberOfSeats() != null ? participantToRemove.getNumberOfSeats() : 1;
+        rideRequestRepository.releaseSeats(ride.getId(), seats);
+        rideMembershipCache.evictAfterCommit(ride.getId());
+
         // Delete only ratings associated with this specific user for this ride
         ratingService.deleteRatingsForParticipantOnRide(ride, participantUser);
 
@@ -77,20 +85,19 @@ public class RideCancellationService {
         ratingService.deleteAllRatingsForRide(ride);
 
         // Notify all participants before deleting
-        for (RideParticipant participant : ride.getParticipants()) {
-            String message = "Your ride from " + ride.getOriginCity() + " to " +
-                    ride.getDestinationCity() + " has been cancelled by the driver.";
-
-            notificationService.createNotification(
-                    participant.getParticipant(),
-                    message,
-                    "/dashboard",
-                    "RIDE_CANCELLED",
-                    ride.getId()
-            );
-        }
+        String message = "Your ride from " + ride.getOriginCity() + " to " +
+                ride.getDestinationCity() + " has been cancelled by the driver.";
+        notificationService.createNotifications(ride.getParticipants().stream()
+                .map(participant -> new NotificationService.NewNotification(
+                        participant.getParticipant(),
+                        message,
+                        "/dashboard",
+                        "RIDE_CANCELLED",
+                        ride.getId()))
+                .toList());
 
         // Delete the ride. Cascade settings will automatically delete associated participants.
         rideRequestRepository.delete(ride);
+        rideMembershipCache.evictAfterCommit(rideId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.homeride.backend.repository.RideParticipantRepository;
+import com.homeride.backend.repository.RideRequestRepository;
+import com.homeride.backend.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Who belongs to a ride (driver plus participants), kept compact for chat fan-out and membership
+ * checks. Loaded with two projection queries instead of the full ride graph, and evicted after
+ * commit whenever a ride is joined, cancelled or deleted. Eviction only reaches this instance, so
+ * {@link #isMember} re-reads the database before turning anyone away.
+ */
+@Service
+public class RideMembershipCache {
+
+    /**
+     * Driver and participants of one ride; {@code participantIds[i]} belongs to {@code participantEmails[i]}.
+     */
+    public record RideMembership(long rideId, long driverId, String driverEmail,
+                                 long[] participantIds, String[] participantEmails,
+                                 String originCity, String destinationCity) {
+
+        public boolean isMember(String email) {
+            if (driverEmail.equalsIgnoreCase(email)) {
+                return true;
+            }
+            for (String participantEmail : participantEmails) {
+                if (participantEmail.equalsIgnoreCase(email)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final RideRequestRepository rideRequestRepository;
+    private final RideParticipantRepository rideParticipantRepository;
+    private final LoadingCache<Long, Optional<RideMembership>> memberships;
+
+    @Autowired
+    public RideMembershipCache(RideRequestRepository rideRequestRepository,
+                               RideParticipantRepository rideParticipantRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${rides.membership-cache.max-size:10000}") long maxSize,
+                               @Value("${rides.membership-cache.ttl:PT30M}") Duration ttl) {
+        this.rideRequestRepository = rideRequestRepository;
+        this.rideParticipantRepository = rideParticipantRepository;
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, memberships, "rides.membership");
+    }
+
+    public Optional<RideMembership> find(Long rideId) {
+        return memberships.get(rideId);
+    }
+
+    /**
+     * Whether {@code email} is the ride's driver or a participant. A negative answer from the cache
+     * is confirmed against the database, since the member may have joined through another instance.
+     */
+    public boolean isMember(Long rideId, String email) {
+        if (memberships.get(rideId).map(membership -> membership.isMember(email)).orElse(false)) {
+            return true;
+        }
+        Optional<RideMembership> current = load(rideId);
+        memberships.put(rideId, current);
+        return current.map(membership -> membership.isMember(email)).orElse(false);
+    }
+
+    /**
+     * Drops the ride's cached membership once the current transaction commits (or right away
+     * outside a transaction), so readers never cache a membership that is about to change.
+     */
+    public void evictAfterCommit(Long rideId) {
+        TransactionHooks.afterCommit(() -> memberships.invalidate(rideId));
+    }
+
+    private Optional<RideMembership> load(Long rideId) {
+        return rideRequestRepository.findMembershipHeader(rideId).map(header -> {
+            List<RideParticipantRepository.MemberRow> members = rideParticipantRepository.findMembersByRideId(rideId);
+            long[] participantIds = new long[members.size()];
+            String[] participantEmails = new String[members.size()];
+            for (int i = 0; i < members.size(); i++) {
+                participantIds[i] = members.get(i).getId();
+                participantEmails[i] = members.get(i).getEmail();
+            }
+            return new RideMembership(rideId, header.getDriverId(), header.getDriverEmail(),
+                    participantIds, participantEmails, header.getOriginCity(), header.getDestinationCity());
+        });
+    }
+}
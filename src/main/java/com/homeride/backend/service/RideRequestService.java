@@ -1,21 +1,32 @@
 package com.homeride.backend.service;
 
 import com.google.maps.model.LatLng;
+import com.homeride.backend.dto.CursorPageDTO;
+import com.homeride.backend.dto.EmployeeSnapshot;
 import com.homeride.backend.dto.RideRequestDTO;
+import com.homeride.backend.dto.RideSummaryView;
 import com.homeride.backend.dto.StopoverDto;
 import com.homeride.backend.dto.TravelInfo;
+import com.homeride.backend.exception.InvalidRequestException;
 import com.homeride.backend.model.Employee;
+import com.homeride.backend.model.RatingAggregate;
 import com.homeride.backend.model.RideParticipant;
 import com.homeride.backend.model.RideRequest;
 import com.homeride.backend.model.Stopover;
 import com.homeride.backend.repository.EmployeeRepository;
 import com.homeride.backend.repository.RideParticipantRepository;
 import com.homeride.backend.repository.RideRequestRepository;
+import com.homeride.backend.repository.RideRequestRepository.Ridespecs;
+import com.homeride.backend.util.KeysetCursor;
+import com.homeride.backend.util.LocationNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -23,6 +34,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -30,6 +46,8 @@ import java.util.stream.IntStream;
 public class RideRequestService {
 
     private static final Logger logger = LoggerFactory.getLogger(RideRequestService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
 
     private final RideRequestRepository rideRequestRepository;
     private final EmployeeRepository employeeRepository;
@@ -38,6 +56,11 @@ public class RideRequestService {
     private final RatingService ratingService;
     private final NotificationService notificationService;
     private final PricingService pricingService;
+    private final RideRouteIndexService rideRouteIndexService;
+    private final Executor mapsExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeCache employeeCache;
+    private final RideMembershipCache rideMembershipCache;
 
     @Autowired
     public RideRequestService(RideRequestRepository rideRequestRepository,
@@ -46,7 +69,12 @@ public class RideRequestService {
                               GoogleMapsService googleMapsService,
                               RatingService ratingService,
                               NotificationService notificationService,
-                              PricingService pricingService) {
+                              PricingService pricingService,
+                              RideRouteIndexService rideRouteIndexService,
+                              @Qualifier("mapsExecutor") Executor mapsExecutor,
+                              TransactionTemplate transactionTemplate,
+                              EmployeeCache employeeCache,
+                              RideMembershipCache rideMembershipCache) {
         this.rideRequestRepository = rideRequestRepository;
         this.employeeRepository = employeeRepository;
         this.rideParticipantRepository = rideParticipantRepository;
@@ -54,13 +82,21 @@ public class RideRequestService {
         this.ratingService = ratingService;
         this.notificationService = notificationService;
         this.pricingService = pricingService;
+        this.rideRouteIndexService = rideRouteIndexService;
+        this.mapsExecutor = mapsExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.employeeCache = employeeCache;
+        this.rideMembershipCache = rideMembershipCache;
     }
 
-    @Transactional
+    /**
+     * Creates a ride offer. All Google Maps calls (stopover geocodes and both directions lookups) run
+     * in parallel on the maps executor and finish before the transaction that saves the ride opens.
+     * With open-in-view the request's EntityManager holds on to a connection from its first use until
+     * the response is written, so this method must not touch the database (including the requester
+     * lookup, which can miss the cache) until the remote lookups are done.
+     */
     public RideRequest createRideOffer(RideRequestDTO rideRequestDTO, String requesterEmail) {
-        Employee requester = employeeRepository.findByEmail(requesterEmail)
-                .orElseThrow(() -> new RuntimeException("Employee not found with email: " + requesterEmail));
-
         RideRequest newRideOffer = new RideRequest();
         newRideOffer.setOriginCity(rideRequestDTO.getOriginCity());
         newRideOffer.setOrigin(rideRequestDTO.getOrigin());
@@ -68,7 +104,6 @@ public class RideRequestService {
         newRideOffer.setDestination(rideRequestDTO.getDestination());
         newRideOffer.setTravelDateTime(rideRequestDTO.getTravelDateTime());
         newRideOffer.setStatus("PENDING");
-        newRideOffer.setRequester(requester);
         newRideOffer.setRideType("OFFERED");
         newRideOffer.setVehicleModel(rideRequestDTO.getVehicleModel());
         newRideOffer.setVehicleCapacity(rideRequestDTO.getVehicleCapacity());
@@ -85,38 +120,34 @@ public class RideRequestService {
                         stopover.setCity(dto.getCity());
                         stopover.setPoint(dto.getPoint());
                         stopover.setRideRequest(newRideOffer);
-                        try {
-                            LatLng location = googleMapsService.geocodeAddress(dto.getPoint());
-                            if (location != null) {
-                                stopover.setLat(location.lat);
-                                stopover.setLng(location.lng);
-                            }
-                        } catch (Exception e) {
-                            logger.error("Could not geocode stopover point: {}", dto.getPoint(), e);
-                        }
                         return stopover;
                     })
                     .collect(Collectors.toList());
             newRideOffer.setStopovers(stopoverEntities);
         }
 
-        // ===== KEY CHANGE: GET DIRECT DISTANCE FOR PRICING =====
-        // This is independent of stopovers
-        double directDistance = googleMapsService.getDirectDistance(
-                rideRequestDTO.getOrigin(),
-                rideRequestDTO.getDestination()
-        );
-        logger.info("Direct Distance (for pricing): {:.2f}km", directDistance);
+        // Fan out all remote lookups at once
+        List<CompletableFuture<Void>> geocodes = stopoverEntities.stream()
+                .map(stopover -> CompletableFuture.runAsync(() -> geocodeStopover(stopover), mapsExecutor))
+                .collect(Collectors.toList());
+
+        // Direct distance is for pricing and is independent of stopovers
+        CompletableFuture<Double> directDistanceFuture = CompletableFuture.supplyAsync(
+                () -> googleMapsService.getDirectDistance(rideRequestDTO.getOrigin(), rideRequestDTO.getDestination()),
+                mapsExecutor);
 
-        // ===== GET FULL ROUTE INFO WITH STOPOVERS (for display & segment pricing) =====
+        // Full route info with stopovers is for display & segment pricing
         String[] stopsArray = stopoverEntities.stream()
                 .map(Stopover::getPoint)
                 .toArray(String[]::new);
-        TravelInfo travelInfo = googleMapsService.getTravelInfoWithStopovers(
-                rideRequestDTO.getOrigin(),
-                rideRequestDTO.getDestination(),
-                stopsArray
-        );
+        CompletableFuture<TravelInfo> travelInfoFuture = CompletableFuture.supplyAsync(
+                () -> googleMapsService.getTravelInfoWithStopovers(rideRequestDTO.getOrigin(), rideRequestDTO.getDestination(), stopsArray),
+                mapsExecutor);
+
+        CompletableFuture.allOf(geocodes.toArray(new CompletableFuture[0])).join();
+        double directDistance = await(directDistanceFuture);
+        TravelInfo travelInfo = await(travelInfoFuture);
+        logger.info("Direct Distance (for pricing): {}km", directDistance);
 
         double actualRouteDistance = travelInfo.getDistanceInKm();
         newRideOffer.setDuration(travelInfo.getDurationInMinutes());
@@ -190,116 +221,174 @@ public class RideRequestService {
         newRideOffer.setStopoverPrices(segmentPrices);
         segmentInfo.forEach(logger::info);
 
-        // Save ride
-        RideRequest savedRide = rideRequestRepository.save(newRideOffer);
-
-        // Notification
-        String message = "You offered a ride from " + savedRide.getOriginCity() +
-                " to " + savedRide.getDestinationCity();
-        notificationService.createNotification(requester, message, "/ride/" + savedRide.getId(),
-                "RIDE_OFFERED", savedRide.getId());
+        // Save ride and notify in one short transaction, now that all remote I/O is done
+        RideRequest savedRide = transactionTemplate.execute(status -> {
+            // Only the id is needed for the foreign key, so resolve it from the cache and use a reference
+            EmployeeSnapshot requesterSnapshot = employeeCache.findByEmail(requesterEmail)
+                    .orElseThrow(() -> new RuntimeException("Employee not found with email: " + requesterEmail));
+            Employee requester = employeeRepository.getReferenceById(requesterSnapshot.id());
+            newRideOffer.setRequester(requester);
+
+            RideRequest ride = rideRequestRepository.save(newRideOffer);
+            rideRouteIndexService.indexRoute(ride);
+            rideMembershipCache.evictAfterCommit(ride.getId()); // Drop any cached "no such ride" entry
+
+            String message = "You offered a ride from " + ride.getOriginCity() +
+                    " to " + ride.getDestinationCity();
+            notificationService.createNotification(requester, message, "/ride/" + ride.getId(),
+                    "RIDE_OFFERED", ride.getId());
+            return ride;
+        });
 
         logger.info("Created Ride Offer ID: {}, Direct Distance: {}km, Actual Route: {}km, Total Price: {}, Segment Prices: {}",
                 savedRide.getId(), directDistance, actualRouteDistance, savedRide.getPrice(), savedRide.getStopoverPrices());
 
         return savedRide;
     }
+    private void geocodeStopover(Stopover stopover) {
+        try {
+            LatLng location = googleMapsService.geocodeAddress(stopover.getPoint());
+            if (location != null) {
+                stopover.setLat(location.lat);
+                stopover.setLng(location.lng);
+            }
+        } catch (Exception e) {
+            logger.error("Could not geocode stopover point: {}", stopover.getPoint(), e);
+        }
+    }
+
     public RideRequest getRideById(Long rideId) {
         RideRequest ride = rideRequestRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found with id: " + rideId));
 
-        if (ride.getRequester() != null) {
-            Double avgRating = ratingService.calculateAverageRating(ride.getRequester().getId());
-            ride.getRequester().setAverageRating(avgRating);
-            ride.getParticipants().size();
-        }
-        ride.getStopovers().size();
+        ratingService.applyRequesterRatings(List.of(ride));
 
         return ride;
     }
 
-    public List<RideRequest> getAllRideRequests(String origin, String destination, String travelDateTime, Integer passengerCount) {
-        List<RideRequest> rides = rideRequestRepository.findAll().stream()
-                .filter(r -> "OFFERED".equals(r.getRideType()) && r.getTravelDateTime().isAfter(LocalDateTime.now()))
-                .collect(Collectors.toList());
+    /**
+     * Searches upcoming ride offers one page at a time, ordered by (travelDateTime, id).
+     * {@code cursor} is the {@code nextCursor} of the previous page, so every page costs the same
+     * index range scan no matter how deep it is.
+     */
+    public CursorPageDTO<RideSummaryView> getAllRideRequests(String origin, String destination, String travelDateTime,
+                                                             Integer passengerCount, String cursor, Integer size) {
+        int pageSize = size != null ? Math.max(1, Math.min(size, MAX_PAGE_SIZE)) : DEFAULT_SEARCH_PAGE_SIZE;
+
+        Specification<RideRequest> spec = buildSearchSpecification(origin, destination, travelDateTime, passengerCount);
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            spec = spec.and(Ridespecs.isAfterKey(after.timestamp(), after.id()));
+        }
 
-        List<RideRequest> filteredRides = rides.stream()
-                .filter(ride -> {
-                    if (travelDateTime != null && !travelDateTime.trim().isEmpty()) {
-                        try {
-                            LocalDate searchDate = LocalDate.parse(travelDateTime);
-                            if (!ride.getTravelDateTime().toLocalDate().isEqual(searchDate)) {
-                                return false;
-                            }
-                        } catch (Exception e) {
-                            logger.warn("Invalid date format during search: {}", travelDateTime);
-                        }
-                    }
-
-                    if (passengerCount != null && passengerCount > 0) {
-                        int totalSeatsBooked = ride.getParticipants().stream()
-                                .mapToInt(p -> p.getNumberOfSeats() != null ? p.getNumberOfSeats() : 1)
-                                .sum();
-                        int availableSeats = ride.getVehicleCapacity() - totalSeatsBooked;
-                        if (availableSeats < passengerCount) {
-                            return false;
-                        }
-                    }
-
-                    if (origin != null && !origin.trim().isEmpty() &&
-                            destination != null && !destination.trim().isEmpty()) {
-                        if (!canAccommodateJourney(ride, origin, destination)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                })
-                .collect(Collectors.toList());
+        // One extra id tells us whether another page exists
+        List<Long> rideIds = rideRequestRepository.findIdsOrderedByTravelTime(spec, pageSize + 1);
+        boolean hasMore = rideIds.size() > pageSize;
+        List<RideSummaryView> rides = loadRideSummaries(hasMore ? rideIds.subList(0, pageSize) : rideIds);
 
-        for (RideRequest ride : filteredRides) {
-            if (ride.getRequester() != null) {
-                Double avgRating = ratingService.calculateAverageRating(ride.getRequester().getId());
-                ride.getRequester().setAverageRating(avgRating);
-            }
+        String nextCursor = null;
+        if (hasMore && !rides.isEmpty()) {
+            RideSummaryView last = rides.get(rides.size() - 1);
+            nextCursor = new KeysetCursor(last.getTravelDateTime(), last.getId()).encode();
         }
+        return new CursorPageDTO<>(rides, nextCursor);
+    }
 
-        return filteredRides;
+    /**
+     * Loads the rides a user drives or has joined within [from, to), ordered by travel time.
+     * Only the user's own rides are read, so the cost does not grow with the size of the platform.
+     */
+    public List<RideRequest> findRidesForUser(Long userId, LocalDateTime from, LocalDateTime to) {
+        List<Long> rideIds = rideRequestRepository.findRideIdsForUser(userId, from, to, Integer.MAX_VALUE, 0);
+        if (rideIds.isEmpty()) {
+            return List.of();
+        }
+        // The entity-graph fetch returns rides in arbitrary order; put them back in id order
+        Map<Long, RideRequest> ridesById = rideRequestRepository.findAllByIdIn(rideIds).stream()
+                .collect(Collectors.toMap(RideRequest::getId, Function.identity()));
+        return rideIds.stream()
+                .map(ridesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    private boolean canAccommodateJourney(RideRequest ride, String searchOrigin, String searchDestination) {
-        List<RoutePoint> fullPath = buildFullPath(ride);
+    // Offset of a zero-based page; rejects negative pages and pages too deep to address
+    private static long pageOffset(Integer page, int limit) {
+        if (page == null) {
+            return 0;
+        }
+        if (page < 0) {
+            throw new InvalidRequestException("page must not be negative");
+        }
+        try {
+            return Math.multiplyExact((long) page, limit);
+        } catch (ArithmeticException e) {
+            throw new InvalidRequestException("page is out of range");
+        }
+    }
 
-        logger.debug("=== Checking Ride ID: {} for Journey: '{}' -> '{}' ===", ride.getId(), searchOrigin, searchDestination);
-        fullPath.forEach(p -> logger.debug("  Route Point: City='{}', Point='{}'", p.getCity(), p.getPoint()));
+    /**
+     * Builds list-card views for the given rides, preserving the order of {@code rideIds}.
+     * Costs three queries regardless of page size: ride columns, stopovers and requester ratings.
+     */
+    private List<RideSummaryView> loadRideSummaries(List<Long> rideIds) {
+        if (rideIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RideSummaryView> summariesById = rideRequestRepository.findSummariesByIdIn(rideIds).stream()
+                .collect(Collectors.toMap(RideSummaryView::getId, Function.identity()));
+
+        for (Stopover stopover : rideRequestRepository.findStopoversByRideIdIn(rideIds)) {
+            RideSummaryView summary = summariesById.get(stopover.getRideRequest().getId());
+            if (summary != null) {
+                StopoverDto dto = new StopoverDto();
+                dto.setCity(stopover.getCity());
+                dto.setPoint(stopover.getPoint());
+                summary.getStopovers().add(dto);
+            }
+        }
 
-        int originIndex = -1;
-        int destinationIndex = -1;
+        Set<Long> requesterIds = summariesById.values().stream()
+                .map(RideSummaryView::getRequesterId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, RatingAggregate> ratings = ratingService.getRatingAggregates(requesterIds);
+        for (RideSummaryView summary : summariesById.values()) {
+            RatingAggregate rating = ratings.get(summary.getRequesterId());
+            summary.setRequesterAverageRating(rating != null ? rating.getAverageRating() : null);
+        }
 
-        for (int i = 0; i < fullPath.size(); i++) {
-            if (matchesLocation(fullPath.get(i), searchOrigin)) {
-                originIndex = i;
-                logger.debug("  Origin found at index {}", i);
-                break;
+        return rideIds.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Specification<RideRequest> buildSearchSpecification(String origin, String destination,
+                                                                String travelDateTime, Integer passengerCount) {
+        Specification<RideRequest> spec = Specification.where(Ridespecs.isOfferedRide())
+                .and(Ridespecs.isAfterCutoffTime(LocalDateTime.now()));
+
+        if (travelDateTime != null && !travelDateTime.trim().isEmpty()) {
+            try {
+                spec = spec.and(Ridespecs.departsOn(LocalDate.parse(travelDateTime)));
+            } catch (Exception e) {
+                logger.warn("Invalid date format during search: {}", travelDateTime);
             }
         }
 
-        if (originIndex == -1) {
-            logger.debug("  Origin not found in route.");
-            return false;
+        if (passengerCount != null && passengerCount > 0) {
+            spec = spec.and(Ridespecs.hasAvailableSeats(passengerCount));
         }
 
-        for (int i = originIndex + 1; i < fullPath.size(); i++) {
-            if (matchesLocation(fullPath.get(i), searchDestination)) {
-                destinationIndex = i;
-                logger.debug("  Destination found at index {}", i);
-                break;
-            }
+        if (origin != null && !origin.trim().isEmpty() &&
+                destination != null && !destination.trim().isEmpty()) {
+            spec = spec.and(Ridespecs.servesJourney(
+                    LocationNormalizer.mainCityKey(origin),
+                    LocationNormalizer.mainCityKey(destination)));
         }
 
-        boolean possible = destinationIndex != -1;
-        logger.debug("=== Journey Possible: {} ===\n", possible);
-        return possible;
+        return spec;
     }
 
     private List<RoutePoint> buildFullPath(RideRequest ride) {
@@ -317,9 +406,9 @@ public class RideRequestService {
             return false;
         }
 
-        String searchLower = normalizeLocation(searchLocation);
-        String cityLower = normalizeLocation(routePoint.getCity());
-        String pointLower = normalizeLocation(routePoint.getPoint());
+        String searchLower = LocationNormalizer.normalize(searchLocation);
+        String cityLower = LocationNormalizer.normalize(routePoint.getCity());
+        String pointLower = LocationNormalizer.normalize(routePoint.getPoint());
 
         logger.trace("  Comparing search='{}' with city='{}', point='{}'", searchLower, cityLower, pointLower);
 
@@ -335,9 +424,9 @@ public class RideRequestService {
             if (searchLower.contains(cityLower) && cityLower.length() > 2) return true;
         }
 
-        String searchMainCity = extractMainCity(searchLocation);
-        String cityMainCity = extractMainCity(routePoint.getCity());
-        String pointMainCity = extractMainCity(routePoint.getPoint());
+        String searchMainCity = LocationNormalizer.mainCityKey(searchLocation);
+        String cityMainCity = LocationNormalizer.mainCityKey(routePoint.getCity());
+        String pointMainCity = LocationNormalizer.mainCityKey(routePoint.getPoint());
 
         if (!searchMainCity.isEmpty() && searchMainCity.length() >= 3) {
             if (!cityMainCity.isEmpty() && cityMainCity.contains(searchMainCity)) return true;
@@ -348,43 +437,27 @@ public class RideRequestService {
         return false;
     }
 
-    private String normalizeLocation(String location) {
-        if (location == null) return "";
-        return location.toLowerCase()
-                .trim()
-                .replaceAll("\\s+", " ")
-                .replace(", india", "")
-                .replace(", maharashtra", "")
-                .replace(", tamil nadu", "")
-                .replace(", andhra pradesh", "");
-    }
-
-    private String extractMainCity(String location) {
-        if (location == null || location.isEmpty()) return "";
-        String normalized = normalizeLocation(location);
-        String[] parts = normalized.split(",");
-        return (parts.length > 0 && parts[0].trim().length() >= 3) ? parts[0].trim() : normalized;
-    }
-
     @Transactional
     public void deleteRide(Long rideId, String userEmail) {
         RideRequest ride = rideRequestRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found with id: " + rideId));
-        Employee user = employeeRepository.findByEmail(userEmail)
+        EmployeeSnapshot user = employeeCache.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + userEmail));
 
-        if (!Objects.equals(ride.getRequester().getId(), user.getId())) {
+        if (!Objects.equals(ride.getRequester().getId(), user.id())) {
             throw new IllegalStateException("You are not authorized to delete this ride.");
         }
 
-        ride.getParticipants().forEach(participant -> {
-            String message = "Your ride from " + ride.getOriginCity() + " to " + ride.getDestinationCity() + " has been canceled by the driver.";
-            notificationService.createNotification(participant.getParticipant(), message, "/dashboard", "RIDE_CANCELED", ride.getId());
-        });
+        String message = "Your ride from " + ride.getOriginCity() + " to " + ride.getDestinationCity() + " has been canceled by the driver.";
+        notificationService.createNotifications(ride.getParticipants().stream()
+                .map(participant -> new NotificationService.NewNotification(
+                        participant.getParticipant(), message, "/dashboard", "RIDE_CANCELED", ride.getId()))
+                .toList());
 
         ratingService.deleteAllRatingsForRide(ride);
         logger.info("User {} authorized. Deleting ride ID: {}", userEmail, rideId);
         rideRequestRepository.delete(ride);
+        rideMembershipCache.evictAfterCommit(rideId);
     }
 
     @Transactional
@@ -409,7 +482,7 @@ public class RideRequestService {
         if (pickupPoint == null || pickupPoint.trim().isEmpty() ||
                 dropoffPoint == null || dropoffPoint.trim().isEmpty() ||
                 price == null || numberOfSeats < 1) {
-            throw new IllegalArgumentException("Pickup point, drop-off point, valid price, and number of seats must be provided.");
+            throw new InvalidRequestException("Pickup point, drop-off point, valid price, and number of seats must be provided.");
         }
 
         List<RoutePoint> fullPath = buildFullPath(rideRequest);
@@ -428,16 +501,16 @@ public class RideRequestService {
         if (!"OFFERED".equalsIgnoreCase(rideRequest.getRideType())) throw new IllegalStateException("You can only join offered rides.");
         if ("FEMALE_ONLY".equalsIgnoreCase(rideRequest.getGenderPreference()) && !"FEMALE".equalsIgnoreCase(participant.getGender())) throw new IllegalStateException("This ride is for female participants only.");
 
-        int totalSeatsBooked = rideRequest.getParticipants().stream()
-                .mapToInt(p -> p.getNumberOfSeats() != null ? p.getNumberOfSeats() : 1)
-                .sum();
-        if (rideRequest.getVehicleCapacity() - totalSeatsBooked < numberOfSeats) {
-            throw new IllegalStateException("Not enough seats available. Only " + (rideRequest.getVehicleCapacity() - totalSeatsBooked) + " seat(s) left.");
-        }
-
         if (Objects.equals(rideRequest.getRequester().getId(), participant.getId())) throw new IllegalStateException("You cannot join your own ride.");
         if (rideParticipantRepository.existsByRideRequestAndParticipant(rideRequest, participant)) throw new IllegalStateException("You have already joined this ride.");
 
+        // Atomic check-and-increment; a concurrent join that took the last seats makes this update match no row
+        if (rideRequestRepository.reserveSeats(rideId, numberOfSeats) == 0) {
+            // The loaded entity predates the concurrent join, so read the current count back from the row
+            Integer seatsLeft = rideRequestRepository.findSeatsLeft(rideId);
+            throw new IllegalStateException("Not enough seats available. Only " + Math.max(0, seatsLeft != null ? seatsLeft : 0) + " seat(s) left.");
+        }
+
         RideParticipant rideParticipant = new RideParticipant();
         rideParticipant.setRideRequest(rideRequest);
         rideParticipant.setParticipant(participant);
@@ -447,56 +520,61 @@ public class RideRequestService {
         rideParticipant.setNumberOfSeats(numberOfSeats);
 
         RideParticipant savedParticipant = rideParticipantRepository.save(rideParticipant);
+        rideMembershipCache.evictAfterCommit(rideId);
 
         String seatText = numberOfSeats > 1 ? numberOfSeats + " seats" : "1 seat";
         String driverMessage = participant.getName() + " booked " + seatText + " on your ride: " +
                 rideRequest.getOriginCity() + " -> " + rideRequest.getDestinationCity() +
-                " (Segment: " + extractMainCity(pickupPoint) + " -> " + extractMainCity(dropoffPoint) + ")";
-        notificationService.createNotification(rideRequest.getRequester(), driverMessage, "/ride/" + rideId, "RIDE_JOINED", rideId);
-
+                " (Segment: " + LocationNormalizer.mainCityKey(pickupPoint) + " -> " + LocationNormalizer.mainCityKey(dropoffPoint) + ")";
         String participantMessage = "Booking confirmed for " + seatText + ": " +
                 rideRequest.getOriginCity() + " -> " + rideRequest.getDestinationCity() +
-                " (Your segment: " + extractMainCity(pickupPoint) + " -> " + extractMainCity(dropoffPoint) + ")";
-        notificationService.createNotification(participant, participantMessage, "/ride/" + rideId, "RIDE_BOOKED", rideId);
+                " (Your segment: " + LocationNormalizer.mainCityKey(pickupPoint) + " -> " + LocationNormalizer.mainCityKey(dropoffPoint) + ")";
+        notificationService.createNotifications(List.of(
+                new NotificationService.NewNotification(rideRequest.getRequester(), driverMessage, "/ride/" + rideId, "RIDE_JOINED", rideId),
+                new NotificationService.NewNotification(participant, participantMessage, "/ride/" + rideId, "RIDE_BOOKED", rideId)));
 
         return savedParticipant;
     }
 
-    public List<RideRequest> getRidesForUser(String userEmail) {
-        Employee employee = employeeRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + userEmail));
-        Long userId = employee.getId();
-
-        logger.info("Fetching rides for user: {} (ID: {})", userEmail, userId);
-
-        List<RideRequest> userRides = rideRequestRepository.findAll().stream()
-                .filter(ride -> {
-                    boolean isRequester = ride.getRequester() != null && ride.getRequester().getId().equals(userId);
-                    boolean isParticipant = ride.getParticipants() != null && ride.getParticipants().stream()
-                            .anyMatch(p -> p.getParticipant() != null && p.getParticipant().getId().equals(userId));
-
-                    if(isRequester || isParticipant) {
-                        logger.trace("  Ride ID {}: {} -> {} | {} | Role: {}",
-                                ride.getId(), ride.getOriginCity(), ride.getDestinationCity(), ride.getTravelDateTime(), (isRequester ? "DRIVER" : "PASSENGER"));
-                    }
-                    return isRequester || isParticipant;
-                })
-                .collect(Collectors.toList());
-
-        logger.info("Total rides found for user {}: {}", userEmail, userRides.size());
+    /**
+     * Rides the user drives or has joined. {@code scope} is "upcoming", "past" or null for all;
+     * {@code page}/{@code size} are optional and the page size is capped at {@value #MAX_PAGE_SIZE}.
+     */
+    public List<RideSummaryView> getRidesForUser(String userEmail, String scope, Integer page, Integer size) {
+        Long userId = employeeCache.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + userEmail))
+                .id();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = "upcoming".equalsIgnoreCase(scope) ? now : RideRequestRepository.EARLIEST_TRAVEL_TIME;
+        LocalDateTime to = "past".equalsIgnoreCase(scope) ? now : RideRequestRepository.LATEST_TRAVEL_TIME;
+
+        int limit = Integer.MAX_VALUE;
+        long offset = 0;
+        if (size != null) {
+            limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            offset = pageOffset(page, limit);
+        }
 
-        userRides.forEach(ride -> {
-            if (ride.getRequester() != null) {
-                Double avgRating = ratingService.calculateAverageRating(ride.getRequester().getId());
-                ride.getRequester().setAverageRating(avgRating);
-            }
-            ride.getParticipants().size();
-            ride.getStopovers().size();
-        });
+        List<RideSummaryView> userRides = loadRideSummaries(
+                rideRequestRepository.findRideIdsForUser(userId, from, to, limit, offset));
+        logger.info("Total rides found for user {} (ID: {}, scope: {}): {}", userEmail, userId, scope, userRides.size());
 
         return userRides;
     }
 
+    // Rethrows a lookup's own failure (e.g. a throttled Directions call) rather than the CompletionException
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private static class RoutePoint {
         private final String city;
         private final String point;
@@ -0,0 +1,74 @@
+package com.homeride.backend.service;
+
+import com.homeride.backend.model.RideRequest;
+import com.homeride.backend.model.RideRoutePoint;
+import com.homeride.backend.model.Stopover;
+import com.homeride.backend.repository.RideRequestRepository;
+import com.homeride.backend.repository.RideRoutePointRepository;
+import com.homeride.backend.util.LocationNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class RideRouteIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideRouteIndexService.class);
+
+    private final RideRoutePointRepository rideRoutePointRepository;
+    private final RideRequestRepository rideRequestRepository;
+
+    @Autowired
+    public RideRouteIndexService(RideRoutePointRepository rideRoutePointRepository,
+                                 RideRequestRepository rideRequestRepository) {
+        this.rideRoutePointRepository = rideRoutePointRepository;
+        this.rideRequestRepository = rideRequestRepository;
+    }
+
+    /**
+     * Stores the ride's origin, stopovers and destination as ordered, normalized route points.
+     * Must be called after the ride itself has been saved.
+     */
+    public List<RideRoutePoint> indexRoute(RideRequest ride) {
+        List<RideRoutePoint> points = new ArrayList<>();
+        points.add(routePoint(ride, points.size(), ride.getOriginCity(), ride.getOrigin(), null, null));
+        if (ride.getStopovers() != null) {
+            for (Stopover stop : ride.getStopovers()) {
+                points.add(routePoint(ride, points.size(), stop.getCity(), stop.getPoint(), stop.getLat(), stop.getLng()));
+            }
+        }
+        points.add(routePoint(ride, points.size(), ride.getDestinationCity(), ride.getDestination(), null, null));
+        return rideRoutePointRepository.saveAll(points);
+    }
+
+    // Rides offered before the route index existed have no points yet; index the ones still searchable.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void indexMissingRoutes() {
+        List<RideRequest> unindexed = rideRequestRepository.findUpcomingOffersWithoutRoutePoints(LocalDateTime.now());
+        if (unindexed.isEmpty()) {
+            return;
+        }
+        unindexed.forEach(this::indexRoute);
+        logger.info("Indexed route points for {} existing ride offers", unindexed.size());
+    }
+
+    private RideRoutePoint routePoint(RideRequest ride, int ordinal, String city, String point, Double lat, Double lng) {
+        RideRoutePoint routePoint = new RideRoutePoint();
+        routePoint.setRideRequest(ride);
+        routePoint.setOrdinal(ordinal);
+        routePoint.setCityKey(LocationNormalizer.mainCityKey(city));
+        routePoint.setPointKey(LocationNormalizer.mainCityKey(point));
+        routePoint.setLat(lat);
+        routePoint.setLng(lng);
+        return routePoint;
+    }
+}
@@ -0,0 +1,75 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.homeride.backend.model.Employee;
+import com.homeride.backend.repository.EmployeeRepository;
+import com.homeride.backend.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Turns verified JWT claims into the authenticated principal for HTTP requests and WebSocket sessions.
+ * In stateless mode ({@code jwt.stateless-principal=true}) authorities come from the token's role claim,
+ * checked against the employee's current role through a short-lived cache, so a deleted account or a
+ * role change invalidates old tokens within the TTL without a query on every request.
+ */
+@Service
+public class TokenPrincipalService {
+
+    private final EmployeeRepository employeeRepository;
+    private final boolean statelessPrincipal;
+
+    // email -> current authority ("ROLE_X"), empty when the account no longer exists
+    private final LoadingCache<String, Optional<String>> currentAuthorities;
+
+    @Autowired
+    public TokenPrincipalService(EmployeeRepository employeeRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${jwt.stateless-principal:true}") boolean statelessPrincipal,
+                                 @Value("${jwt.role-check.ttl:PT30S}") Duration roleCheckTtl) {
+        this.employeeRepository = employeeRepository;
+        this.statelessPrincipal = statelessPrincipal;
+        this.currentAuthorities = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(roleCheckTtl)
+                .recordStats()
+                .build(email -> employeeRepository.findRoleByEmail(email).map(role -> "ROLE_" + role));
+        CaffeineCacheMetrics.monitor(meterRegistry, currentAuthorities, "jwt.role-check");
+    }
+
+    public UserDetails loadPrincipal(JwtUtil.TokenClaims claims) {
+        String email = claims.subject();
+        if (!statelessPrincipal) {
+            Employee employee = employeeRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+            return new User(employee.getEmail(), employee.getPassword(),
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + employee.getRole())));
+        }
+
+        String currentAuthority = currentAuthorities.get(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        if (!currentAuthority.equals(claims.role())) {
+            // Role changed since the token was issued; the user has to log in again
+            throw new BadCredentialsException("Token role is out of date for user: " + email);
+        }
+        return new User(email, "", Collections.singletonList(new SimpleGrantedAuthority(currentAuthority)));
+    }
+
+    // Applies a role change or account removal immediately instead of after the TTL
+    public void evict(String email) {
+        currentAuthorities.invalidate(email);
+    }
+}
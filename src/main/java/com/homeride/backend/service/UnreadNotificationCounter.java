@@ -0,0 +1,84 @@
+package com.homeride.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.homeride.backend.repository.NotificationRepository;
+import com.homeride.backend.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counts for the badge. A user's count is loaded with one COUNT query
+ * and afterwards kept in step by create/read/read-all (applied after commit). Counters only change
+ * for users already in the cache, and a change waits for a load that is still running, so it is
+ * applied on top of the loaded count rather than dropped.
+ * <p>
+ * The count can still drift by one: a load that starts after a commit but before that commit's
+ * delta is applied sees the row and then gets the delta as well. Entries therefore expire a fixed
+ * TTL after they were loaded, regardless of later updates, which bounds how long any drift lasts.
+ */
+@Service
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final Cache<Long, AtomicLong> counts;
+
+    @Autowired
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notifications.unread-count.max-size:10000}") long maxSize,
+                                     @Value("${notifications.unread-count.ttl:PT10M}") Duration ttl) {
+        this.notificationRepository = notificationRepository;
+        this.counts = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new LoadedLifetime(ttl)).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "notifications.unread-count");
+    }
+
+    public long get(Long userId) {
+        return counts.get(userId, key -> new AtomicLong(notificationRepository.countByUser_IdAndIsReadFalse(key))).get();
+    }
+
+    public void addAfterCommit(Long userId, long delta) {
+        TransactionHooks.afterCommit(() -> counts.asMap().computeIfPresent(userId, (key, count) -> {
+            count.updateAndGet(current -> Math.max(0, current + delta));
+            return count;
+        }));
+    }
+
+    public void resetAfterCommit(Long userId) {
+        TransactionHooks.afterCommit(() -> counts.asMap().computeIfPresent(userId, (key, count) -> {
+            count.set(0);
+            return count;
+        }));
+    }
+
+    // Expires entries a fixed time after loading; updating a counter does not extend its life
+    private static final class LoadedLifetime implements Expiry<Long, AtomicLong> {
+        private final long ttlNanos;
+
+        LoadedLifetime(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long userId, AtomicLong count, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long userId, AtomicLong count, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Long userId, AtomicLong count, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.homeride.backend.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -21,10 +35,87 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String SECRET;  // Loaded from application.properties
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final long EXPIRATION_TIME = 36000000; // 10 hours (can also move to properties if needed)
 
+    // Built once from the secret; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // SHA-256 of a verified token -> its claims, each entry expiring with the token itself
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    /**
+     * Immutable view of the claims the application uses from a verified token.
+     */
+    public record TokenClaims(String subject, String role, Date issuedAt, Date expiration) {
+        public boolean isExpired() {
+            return expiration != null && expiration.before(new Date());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                        long millisLeft = claims.expiration() != null
+                                ? claims.expiration().getTime() - System.currentTimeMillis()
+                                : 0;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+    }
+
+    /**
+     * Verifies the token's signature and expiry and returns its claims. Each distinct token is
+     * parsed once; later calls are answered from the cache until the token expires.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public TokenClaims verify(String token) {
+        String tokenHash = sha256(token);
+        TokenClaims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        TokenClaims verified = new TokenClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration());
+        verifiedTokens.put(tokenHash, verified);
+        return verified;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     /**
@@ -32,7 +123,7 @@ public class JwtUtil {
      */
     public String extractEmail(String token) {
         try {
-            return extractClaim(token, Claims::getSubject);
+            return verify(token).subject();
         } catch (Exception e) {
             System.err.println("Error extracting email from token: " + e.getMessage());
             return null;
@@ -45,15 +136,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -69,13 +152,13 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final TokenClaims claims = verify(token);
+        return (claims.subject().equals(userDetails.getUsername()) && !claims.isExpired());
     }
 
     /**
@@ -83,16 +166,20 @@ public class JwtUtil {
      */
     public Boolean isTokenValid(String token, String email) {
         try {
-            final String tokenEmail = extractEmail(token);
-            return (tokenEmail != null && tokenEmail.equals(email) && !isTokenExpired(token));
+            final TokenClaims claims = verify(token);
+            return (claims.subject() != null && claims.subject().equals(email) && !claims.isExpired());
         } catch (Exception e) {
             System.err.println("Error validating token: " + e.getMessage());
             return false;
         }
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.homeride.backend.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes free-text locations into the lowercase keys used for route matching.
+ * The same rules are applied when a ride's route is indexed and when a search is run,
+ * so both sides of the comparison always agree.
+ */
+public final class LocationNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String[] REGION_SUFFIXES = {", india", ", maharashtra", ", tamil nadu", ", andhra pradesh"};
+
+    private LocationNormalizer() {
+    }
+
+    public static String normalize(String location) {
+        if (location == null) return "";
+        String normalized = WHITESPACE.matcher(location.toLowerCase().trim()).replaceAll(" ");
+        for (String suffix : REGION_SUFFIXES) {
+            normalized = normalized.replace(suffix, "");
+        }
+        return normalized;
+    }
+
+    /**
+     * Case- and whitespace-insensitive key for caching lookups of free-text addresses.
+     * Unlike {@link #normalize(String)} it keeps region suffixes, since "Aurangabad, Bihar" and
+     * "Aurangabad, Maharashtra" must not share a cached result.
+     */
+    public static String lookupKey(String location) {
+        if (location == null) return "";
+        return WHITESPACE.matcher(location.toLowerCase().trim()).replaceAll(" ");
+    }
+
+    /**
+     * Returns the first comma-separated part of a location (e.g. "gachibowli" for
+     * "Gachibowli, Hyderabad, Telangana"), or the whole normalized value when that part is too short.
+     */
+    public static String mainCityKey(String location) {
+        if (location == null || location.isEmpty()) return "";
+        String normalized = normalize(location);
+        int comma = normalized.indexOf(',');
+        String first = (comma >= 0 ? normalized.substring(0, comma) : normalized).trim();
+        return first.length() >= 3 ? first : normalized;
+    }
+}
@@ -0,0 +1,9 @@
+-- One-time seed of the geocode store from stopovers geocoded before it existed (newest stopover wins).
+-- The key expression mirrors LocationNormalizer.lookupKey.
+INSERT INTO geocode_entries (address_key, lat, lng, created_at)
+SELECT DISTINCT ON (s.address_key) s.address_key, s.lat, s.lng, now()
+FROM (SELECT regexp_replace(lower(trim(point)), '\s+', ' ', 'g') AS address_key, lat, lng, id
+      FROM ride_stopovers
+      WHERE lat IS NOT NULL AND lng IS NOT NULL) s
+ORDER BY s.address_key, s.id DESC
+ON CONFLICT (address_key) DO NOTHING;
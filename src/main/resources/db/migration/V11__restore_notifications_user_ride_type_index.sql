@@ -0,0 +1,7 @@
+-- Built CONCURRENTLY so the notifications table stays writable; Flyway runs this migration outside a transaction.
+
+-- V6 dropped this index when the unique chat index took over the upsert, but that index only covers
+-- unread CHAT_MESSAGE rows. Restore the general (user, ride, type) unread index from V2 next to it
+-- so lookups of a user's unread notifications for a ride stay index-backed for every type.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_ride_type_unread
+    ON notifications (user_id, ride_id, type) WHERE NOT is_read;
@@ -0,0 +1,178 @@
+-- Baseline of the schema previously maintained by spring.jpa.hibernate.ddl-auto=update.
+-- Every statement is idempotent so this runs both on an empty database and on one created by
+-- Hibernate (flyway baseline-version is 0, so V1 is applied to existing databases too).
+
+CREATE TABLE IF NOT EXISTS employees (
+    id bigserial NOT NULL,
+    name varchar(255) NOT NULL,
+    email varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    phone_number varchar(255),
+    role varchar(255) NOT NULL,
+    gender varchar(255),
+    profile_picture_url varchar(255),
+    travel_credit float(53) NOT NULL,
+    created_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS ride_requests (
+    id bigserial NOT NULL,
+    requester_id bigint NOT NULL,
+    driver_id bigint,
+    origin varchar(255) NOT NULL,
+    origin_city varchar(255) NOT NULL,
+    destination varchar(255) NOT NULL,
+    destination_city varchar(255) NOT NULL,
+    travel_date_time timestamp(6) NOT NULL,
+    ride_type varchar(255) NOT NULL,
+    status varchar(255),
+    vehicle_model varchar(255),
+    vehicle_capacity integer,
+    seats_booked integer DEFAULT 0 NOT NULL,
+    version bigint DEFAULT 0,
+    gender_preference varchar(255),
+    price float(53),
+    duration integer,
+    distance float(53),
+    price_per_km float(53),
+    driver_note varchar(1000),
+    route_polyline TEXT,
+    PRIMARY KEY (id),
+    CONSTRAINT FKbjo5gcm36joiy573oynv50dc1 FOREIGN KEY (requester_id) REFERENCES employees,
+    CONSTRAINT FKo6libsaipgnanthbisvti3ldd FOREIGN KEY (driver_id) REFERENCES employees
+);
+
+-- Columns added after the table was first created by Hibernate
+ALTER TABLE ride_requests ADD COLUMN IF NOT EXISTS seats_booked integer DEFAULT 0 NOT NULL;
+ALTER TABLE ride_requests ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS ride_participants (
+    id bigserial NOT NULL,
+    ride_request_id bigint NOT NULL,
+    participant_id bigint NOT NULL,
+    pickup_point varchar(255) NOT NULL,
+    dropoff_point varchar(255) NOT NULL,
+    number_of_seats integer,
+    price float(53),
+    joined_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FK6sbb2wrl5k230afvtxmoa4ioo FOREIGN KEY (ride_request_id) REFERENCES ride_requests,
+    CONSTRAINT FKaemuuk3q6mdejrggdwwgkek9l FOREIGN KEY (participant_id) REFERENCES employees
+);
+
+-- One-time backfill of seats_booked (added above) from the participant rows, for rides booked before
+-- the counter existed. Runs here rather than at application startup so it can never race with
+-- reserveSeats/releaseSeats on a live instance.
+UPDATE ride_requests r
+SET seats_booked = counted.seats,
+    version = COALESCE(r.version, 0) + 1
+FROM (SELECT ride_request_id, SUM(COALESCE(number_of_seats, 1)) AS seats
+      FROM ride_participants
+      GROUP BY ride_request_id) counted
+WHERE counted.ride_request_id = r.id
+  AND r.seats_booked <> counted.seats;
+
+CREATE TABLE IF NOT EXISTS ride_stopovers (
+    id bigserial NOT NULL,
+    ride_request_id bigint NOT NULL,
+    city varchar(255) NOT NULL,
+    point varchar(255) NOT NULL,
+    lat float(53),
+    lng float(53),
+    PRIMARY KEY (id),
+    CONSTRAINT FKag6o6xdvrt9jgoep9ukhtq1hv FOREIGN KEY (ride_request_id) REFERENCES ride_requests
+);
+
+CREATE TABLE IF NOT EXISTS ride_stopover_prices (
+    ride_request_id bigint NOT NULL,
+    price float(53),
+    CONSTRAINT FKlif90roorg0c3f1dqqdt1vgke FOREIGN KEY (ride_request_id) REFERENCES ride_requests
+);
+
+CREATE TABLE IF NOT EXISTS ride_route_points (
+    id bigserial NOT NULL,
+    ride_request_id bigint NOT NULL,
+    ordinal integer NOT NULL,
+    city_key varchar(255) NOT NULL,
+    point_key varchar(255) NOT NULL,
+    lat float(53),
+    lng float(53),
+    PRIMARY KEY (id),
+    CONSTRAINT FK76sske5xf5k5xap2x7j04gp2c FOREIGN KEY (ride_request_id) REFERENCES ride_requests ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS ratings (
+    id bigserial NOT NULL,
+    rater_id bigint NOT NULL,
+    ratee_id bigint NOT NULL,
+    ride_request_id bigint NOT NULL,
+    score integer NOT NULL,
+    comment TEXT,
+    created_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKfgt9yxmff9388ltxua1ms844 FOREIGN KEY (rater_id) REFERENCES employees,
+    CONSTRAINT FKe6dkues84qilaspj52a6p5b6v FOREIGN KEY (ratee_id) REFERENCES employees,
+    CONSTRAINT FKndfvgd6891sq1h8sipcw0ddu7 FOREIGN KEY (ride_request_id) REFERENCES ride_requests
+);
+
+CREATE TABLE IF NOT EXISTS rating_aggregates (
+    employee_id bigint NOT NULL,
+    score_sum bigint NOT NULL,
+    rating_count bigint NOT NULL,
+    one_star_count bigint NOT NULL,
+    two_star_count bigint NOT NULL,
+    three_star_count bigint NOT NULL,
+    four_star_count bigint NOT NULL,
+    five_star_count bigint NOT NULL,
+    PRIMARY KEY (employee_id)
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id bigserial NOT NULL,
+    user_id bigint NOT NULL,
+    message varchar(255) NOT NULL,
+    is_read boolean NOT NULL,
+    created_at timestamp(6),
+    link varchar(255),
+    type varchar(255),
+    ride_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT FKn6y0lfqx1fpn0qfvvcy7mwxfs FOREIGN KEY (user_id) REFERENCES employees
+);
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+    id bigserial NOT NULL,
+    ride_id bigint,
+    sender_name varchar(255),
+    sender_email varchar(255),
+    sender_profile_picture_url varchar(255),
+    recipient_email varchar(255),
+    content varchar(255),
+    type varchar(255),
+    timestamp timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS geocode_entries (
+    address_key varchar(512) NOT NULL,
+    lat float(53) NOT NULL,
+    lng float(53) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (address_key)
+);
+
+CREATE TABLE IF NOT EXISTS reverse_geocode_entries (
+    cell_key varchar(32) NOT NULL,
+    address varchar(512) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (cell_key)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_ride_participants_ride_participant ON ride_participants (ride_request_id, participant_id);
+CREATE INDEX IF NOT EXISTS idx_ride_participants_participant ON ride_participants (participant_id, ride_request_id);
+CREATE INDEX IF NOT EXISTS idx_ride_requests_type_travel_time ON ride_requests (ride_type, travel_date_time);
+CREATE INDEX IF NOT EXISTS idx_ride_requests_requester_travel_time ON ride_requests (requester_id, travel_date_time);
+CREATE INDEX IF NOT EXISTS idx_route_points_city_key ON ride_route_points (city_key, ride_request_id, ordinal);
+CREATE INDEX IF NOT EXISTS idx_route_points_point_key ON ride_route_points (point_key, ride_request_id, ordinal);
+CREATE INDEX IF NOT EXISTS idx_chat_messages_ride_timestamp_id ON chat_messages (ride_id, timestamp, id);
@@ -0,0 +1,13 @@
+-- Built CONCURRENTLY so the notifications table stays writable; Flyway runs this migration outside a transaction.
+
+-- GET /api/notifications: a user's unread notifications, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_unread
+    ON notifications (user_id, created_at DESC) WHERE NOT is_read;
+
+-- Chat notification bump in ChatNotificationAggregator: the unread row for (user, ride, type)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_ride_type_unread
+    ON notifications (user_id, ride_id, type) WHERE NOT is_read;
+
+-- Retention job: old read notifications
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_read_created_at
+    ON notifications (created_at) WHERE is_read;
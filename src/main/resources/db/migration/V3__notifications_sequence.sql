@@ -0,0 +1,10 @@
+-- Notification ids move from the bigserial default to a sequence Hibernate can allocate from in
+-- blocks of 50 (pooled-lo), which lets multi-recipient notification inserts be JDBC-batched.
+CREATE SEQUENCE IF NOT EXISTS notifications_seq INCREMENT BY 50;
+SELECT setval('notifications_seq', COALESCE((SELECT MAX(id) FROM notifications), 0) + 1, false);
+
+-- Plain SQL inserts (ChatNotificationAggregator) call nextval directly; the column default is moved
+-- over as well so nothing can draw ids from the old sequence. Each such nextval consumes a whole block.
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_seq');
+ALTER SEQUENCE notifications_seq OWNED BY notifications.id;
+DROP SEQUENCE IF EXISTS notifications_id_seq;
@@ -0,0 +1,45 @@
+-- Remaining entity ids move from bigserial defaults to sequences Hibernate allocates from in blocks
+-- of 50 (pooled-lo), as notifications did in V3. With IDENTITY every insert had to run on its own
+-- to read back the id, which disabled hibernate.jdbc.batch_size / order_inserts.
+
+CREATE SEQUENCE IF NOT EXISTS employees_seq INCREMENT BY 50;
+SELECT setval('employees_seq', COALESCE((SELECT MAX(id) FROM employees), 0) + 1, false);
+ALTER TABLE employees ALTER COLUMN id SET DEFAULT nextval('employees_seq');
+ALTER SEQUENCE employees_seq OWNED BY employees.id;
+DROP SEQUENCE IF EXISTS employees_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS ride_requests_seq INCREMENT BY 50;
+SELECT setval('ride_requests_seq', COALESCE((SELECT MAX(id) FROM ride_requests), 0) + 1, false);
+ALTER TABLE ride_requests ALTER COLUMN id SET DEFAULT nextval('ride_requests_seq');
+ALTER SEQUENCE ride_requests_seq OWNED BY ride_requests.id;
+DROP SEQUENCE IF EXISTS ride_requests_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS ride_participants_seq INCREMENT BY 50;
+SELECT setval('ride_participants_seq', COALESCE((SELECT MAX(id) FROM ride_participants), 0) + 1, false);
+ALTER TABLE ride_participants ALTER COLUMN id SET DEFAULT nextval('ride_participants_seq');
+ALTER SEQUENCE ride_participants_seq OWNED BY ride_participants.id;
+DROP SEQUENCE IF EXISTS ride_participants_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS ride_stopovers_seq INCREMENT BY 50;
+SELECT setval('ride_stopovers_seq', COALESCE((SELECT MAX(id) FROM ride_stopovers), 0) + 1, false);
+ALTER TABLE ride_stopovers ALTER COLUMN id SET DEFAULT nextval('ride_stopovers_seq');
+ALTER SEQUENCE ride_stopovers_seq OWNED BY ride_stopovers.id;
+DROP SEQUENCE IF EXISTS ride_stopovers_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS ride_route_points_seq INCREMENT BY 50;
+SELECT setval('ride_route_points_seq', COALESCE((SELECT MAX(id) FROM ride_route_points), 0) + 1, false);
+ALTER TABLE ride_route_points ALTER COLUMN id SET DEFAULT nextval('ride_route_points_seq');
+ALTER SEQUENCE ride_route_points_seq OWNED BY ride_route_points.id;
+DROP SEQUENCE IF EXISTS ride_route_points_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS ratings_seq INCREMENT BY 50;
+SELECT setval('ratings_seq', COALESCE((SELECT MAX(id) FROM ratings), 0) + 1, false);
+ALTER TABLE ratings ALTER COLUMN id SET DEFAULT nextval('ratings_seq');
+ALTER SEQUENCE ratings_seq OWNED BY ratings.id;
+DROP SEQUENCE IF EXISTS ratings_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS chat_messages_seq INCREMENT BY 50;
+SELECT setval('chat_messages_seq', COALESCE((SELECT MAX(id) FROM chat_messages), 0) + 1, false);
+ALTER TABLE chat_messages ALTER COLUMN id SET DEFAULT nextval('chat_messages_seq');
+ALTER SEQUENCE chat_messages_seq OWNED BY chat_messages.id;
+DROP SEQUENCE IF EXISTS chat_messages_id_seq;
@@ -0,0 +1,9 @@
+-- Before chat notifications get a unique index (V6), collapse duplicate unread CHAT_MESSAGE rows
+-- for the same (user, ride) left behind by the old lookup-then-insert path, keeping the newest.
+DELETE FROM notifications n
+USING notifications newer
+WHERE n.type = 'CHAT_MESSAGE' AND NOT n.is_read
+  AND newer.type = 'CHAT_MESSAGE' AND NOT newer.is_read
+  AND newer.user_id = n.user_id
+  AND newer.ride_id = n.ride_id
+  AND (newer.created_at > n.created_at OR (newer.created_at = n.created_at AND newer.id > n.id));
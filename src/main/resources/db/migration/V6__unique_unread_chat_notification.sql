@@ -0,0 +1,8 @@
+-- Built CONCURRENTLY so the notifications table stays writable; Flyway runs this migration outside a transaction.
+
+-- At most one unread chat notification per (user, ride): the conflict target of the upsert in
+-- ChatNotificationAggregator. Replaces the plain index the old bump-then-insert flush used.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_notifications_user_ride_unread_chat
+    ON notifications (user_id, ride_id) WHERE NOT is_read AND type = 'CHAT_MESSAGE';
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_notifications_user_ride_type_unread;
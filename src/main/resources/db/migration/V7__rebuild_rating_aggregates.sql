@@ -0,0 +1,19 @@
+-- One-time rebuild of rating_aggregates from the ratings table, before the application serves traffic.
+-- Every employee's row is recomputed from scratch, so a partial row created by addScore (e.g. on an
+-- instance that started before this migration) cannot hide that employee's older ratings.
+INSERT INTO rating_aggregates (employee_id, score_sum, rating_count, one_star_count, two_star_count,
+                               three_star_count, four_star_count, five_star_count)
+SELECT ratee_id, SUM(score), COUNT(*),
+       SUM(CASE WHEN score = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN score = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN score = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN score = 4 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN score = 5 THEN 1 ELSE 0 END)
+FROM ratings
+GROUP BY ratee_id
+ON CONFLICT (employee_id) DO UPDATE SET
+    score_sum = EXCLUDED.score_sum,
+    rating_count = EXCLUDED.rating_count,
+    one_star_count = EXCLUDED.one_star_count,
+    two_star_count = EXCLUDED.two_star_count,
+    three_star_count = EXCLUDED.three_star_count,
+    four_star_count = EXCLUDED.four_star_count,
+    five_star_count = EXCLUDED.five_star_count;
@@ -0,0 +1,2 @@
+-- Trigram operator classes for the substring match on route point keys (indexes in V9)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
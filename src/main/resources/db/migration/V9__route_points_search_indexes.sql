@@ -0,0 +1,11 @@
+-- Built CONCURRENTLY so ride_route_points stays writable; Flyway runs this migration outside a transaction.
+
+-- Ride search (RideRequestRepository.Ridespecs.servesJourney): key LIKE '%search%' on either key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_route_points_city_key_trgm
+    ON ride_route_points USING gin (city_key gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_route_points_point_key_trgm
+    ON ride_route_points USING gin (point_key gin_trgm_ops);
+
+-- The correlated EXISTS and the origin-before-destination check: a ride's points in route order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_route_points_ride_ordinal
+    ON ride_route_points (ride_request_id, ordinal);
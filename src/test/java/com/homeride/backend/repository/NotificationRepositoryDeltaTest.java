@@ -0,0 +1,170 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.Employee;
+import com.homeride.backend.model.Notification;
+import com.homeride.backend.service.EmployeeCache;
+import com.homeride.backend.service.NotificationService;
+import com.homeride.backend.service.UnreadNotificationCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The Flyway migrations are PostgreSQL-specific; H2 gets its schema from Hibernate
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(NotificationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationRepositoryDeltaTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @MockBean
+    private EmployeeCache employeeCache;
+
+    @MockBean
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Test
+    void deltaReturnsRowsWithLowerPooledIdsThanTheWatermark() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Employee user = tx.execute(status -> createUser());
+
+        // Hibernate takes ids from its pooled block (1..50); a plain SQL insert draws the next block
+        Notification first = tx.execute(status -> save(user, T0));
+        long plainId = tx.execute(status -> insertWithNextval(user, T0.plusSeconds(1)));
+        Notification second = tx.execute(status -> save(user, T0.plusSeconds(2)));
+        assertTrue(second.getId() < plainId, "pooled id should be below the SQL-inserted id");
+
+        // The client has seen the SQL-inserted row; an id watermark would skip the later, lower id
+        List<Notification> missed = notificationRepository.findUnreadAfter(user.getId(), T0.plusSeconds(1), plainId);
+
+        assertEquals(List.of(second.getId()), missed.stream().map(Notification::getId).toList());
+        assertTrue(first.getId() < second.getId());
+    }
+
+    @Test
+    void deltaReturnsBumpedChatNotification() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Employee user = tx.execute(status -> createUser());
+
+        long chatId = tx.execute(status -> insertWithNextval(user, T0));
+        Notification latest = tx.execute(status -> save(user, T0.plusSeconds(1)));
+
+        // A new chat message bumps the existing unread row instead of inserting another one
+        tx.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE notifications SET created_at = ? WHERE id = ?", Timestamp.valueOf(T0.plusSeconds(2)), chatId));
+
+        List<Notification> missed = notificationRepository.findUnreadAfter(user.getId(), latest.getCreatedAt(), latest.getId());
+
+        assertEquals(List.of(chatId), missed.stream().map(Notification::getId).toList());
+    }
+
+    @Test
+    void deltaReturnsNotificationCommittedAfterANewerOne() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Employee user = tx.execute(status -> createUser());
+        LocalDateTime now = LocalDateTime.now();
+
+        // The slow transaction stamps createdAt first but is still open when a newer row commits
+        CountDownLatch stamped = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Notification> late = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            Notification notification = notificationRepository.saveAndFlush(newNotification(user, now.minusSeconds(1)));
+            stamped.countDown();
+            await(release);
+            return notification;
+        }));
+        assertTrue(stamped.await(5, TimeUnit.SECONDS));
+        Notification newer = tx.execute(status -> save(user, now));
+
+        // The client loads its notifications while the slow row is uncommitted; the newer row becomes its watermark
+        List<Notification> seen = notificationRepository.findByUser_IdAndIsReadFalseOrderByCreatedAtDesc(user.getId());
+        assertEquals(List.of(newer.getId()), seen.stream().map(Notification::getId).toList());
+
+        release.countDown();
+        Notification lateRow = late.get(5, TimeUnit.SECONDS);
+
+        List<Notification> missed = notificationService.getUnreadSince(user.getId(), newer.getCreatedAt(), newer.getId());
+
+        assertTrue(missed.stream().anyMatch(n -> n.getId().equals(lateRow.getId())),
+                "a row committed after the watermark row must not be skipped");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Employee createUser() {
+        Employee user = new Employee();
+        user.setName("Rider");
+        user.setEmail("rider-" + System.nanoTime() + "@example.com");
+        user.setPassword("secret");
+        user.setRole("EMPLOYEE");
+        return employeeRepository.save(user);
+    }
+
+    private Notification save(Employee user, LocalDateTime createdAt) {
+        return notificationRepository.save(newNotification(user, createdAt));
+    }
+
+    private static Notification newNotification(Employee user, LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setMessage("Ride update");
+        notification.setType("RIDE_JOINED");
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+
+    private long insertWithNextval(Employee user, LocalDateTime createdAt) {
+        long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR notifications_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO notifications (id, user_id, ride_id, type, message, link, is_read, created_at) " +
+                        "VALUES (?, ?, 1, 'CHAT_MESSAGE', 'New chat message', '/ride/1', false, ?)",
+                id, user.getId(), Timestamp.valueOf(createdAt));
+        return id;
+    }
+}
@@ -0,0 +1,89 @@
+package com.homeride.backend.repository;
+
+import com.homeride.backend.model.Employee;
+import com.homeride.backend.model.RideRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The Flyway migrations are PostgreSQL-specific; H2 gets its schema from Hibernate
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RideRequestRepositoryConcurrencyTest {
+
+    private static final int CAPACITY = 3;
+    private static final int CONCURRENT_JOINS = 12;
+
+    @Autowired
+    private RideRequestRepository rideRequestRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentReservationsNeverOverbook() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long rideId = tx.execute(status -> createRide().getId());
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENT_JOINS);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_JOINS; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return tx.execute(status -> rideRequestRepository.reserveSeats(rideId, 1));
+            }));
+        }
+        start.countDown();
+
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get();
+        }
+        pool.shutdown();
+
+        assertEquals(CAPACITY, granted);
+        assertEquals(CAPACITY, rideRequestRepository.findById(rideId).orElseThrow().getSeatsBooked());
+    }
+
+    private RideRequest createRide() {
+        Employee driver = new Employee();
+        driver.setName("Driver");
+        driver.setEmail("driver@example.com");
+        driver.setPassword("secret");
+        driver.setRole("EMPLOYEE");
+        employeeRepository.save(driver);
+
+        RideRequest ride = new RideRequest();
+        ride.setOriginCity("Hyderabad");
+        ride.setOrigin("Gachibowli, Hyderabad");
+        ride.setDestinationCity("Nellore");
+        ride.setDestination("Nellore Bus Stand, Nellore");
+        ride.setRideType("OFFERED");
+        ride.setTravelDateTime(LocalDateTime.now().plusDays(1));
+        ride.setVehicleCapacity(CAPACITY);
+        ride.setRequester(driver);
+        return rideRequestRepository.save(ride);
+    }
+}
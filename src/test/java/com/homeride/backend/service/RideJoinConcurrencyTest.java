@@ -0,0 +1,159 @@
+package com.homeride.backend.service;
+
+import com.homeride.backend.model.Employee;
+import com.homeride.backend.model.RideRequest;
+import com.homeride.backend.repository.EmployeeRepository;
+import com.homeride.backend.repository.RideParticipantRepository;
+import com.homeride.backend.repository.RideRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Joins go through RideRequestService so the seat reservation, the participant insert and its
+// unique constraint all run in the service's transaction, as they do in production
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(RideRequestService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RideJoinConcurrencyTest {
+
+    private static final int CAPACITY = 3;
+    private static final int CONCURRENT_JOINS = 8;
+
+    @Autowired
+    private RideRequestService rideRequestService;
+
+    @Autowired
+    private RideRequestRepository rideRequestRepository;
+
+    @Autowired
+    private RideParticipantRepository rideParticipantRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private GoogleMapsService googleMapsService;
+
+    @MockBean
+    private RatingService ratingService;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private PricingService pricingService;
+
+    @MockBean
+    private RideRouteIndexService rideRouteIndexService;
+
+    @MockBean(name = "mapsExecutor")
+    private Executor mapsExecutor;
+
+    @MockBean
+    private EmployeeCache employeeCache;
+
+    @MockBean
+    private RideMembershipCache rideMembershipCache;
+
+    @Test
+    void concurrentJoinsNeverOverbook() throws Exception {
+        Long rideId = createRide("driver@example.com").getId();
+        List<Callable<Object>> joins = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_JOINS; i++) {
+            String email = createEmployee("passenger" + i + "@example.com").getEmail();
+            joins.add(() -> rideRequestService.joinRideRequest(rideId, email, segment()));
+        }
+
+        assertEquals(CAPACITY, runConcurrently(joins));
+        assertEquals(CAPACITY, rideRequestRepository.findById(rideId).orElseThrow().getSeatsBooked());
+        assertEquals(CAPACITY, rideParticipantRepository.findMembersByRideId(rideId).size());
+    }
+
+    @Test
+    void concurrentDuplicateJoinsBookOnce() throws Exception {
+        Long rideId = createRide("owner@example.com").getId();
+        String email = createEmployee("twice@example.com").getEmail();
+        List<Callable<Object>> joins = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            joins.add(() -> rideRequestService.joinRideRequest(rideId, email, segment()));
+        }
+
+        // The losers fail on the participant unique constraint and their seat reservation rolls back with them
+        assertEquals(1, runConcurrently(joins));
+        assertEquals(1, rideRequestRepository.findById(rideId).orElseThrow().getSeatsBooked());
+        assertEquals(1, rideParticipantRepository.findMembersByRideId(rideId).size());
+    }
+
+    private int runConcurrently(List<Callable<Object>> tasks) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        List<Future<Object>> results = new ArrayList<>();
+        for (Callable<Object> task : tasks) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Object> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                // Rejected join: not enough seats, already joined, or a constraint violation
+            }
+        }
+        pool.shutdown();
+        return succeeded;
+    }
+
+    private static Map<String, Object> segment() {
+        return Map.of("pickupPoint", "Gachibowli, Hyderabad", "dropoffPoint", "Nellore Bus Stand, Nellore", "price", 500.0);
+    }
+
+    private Employee createEmployee(String email) {
+        Employee employee = new Employee();
+        employee.setName(email);
+        employee.setEmail(email);
+        employee.setPassword("secret");
+        employee.setRole("EMPLOYEE");
+        return employeeRepository.save(employee);
+    }
+
+    private RideRequest createRide(String driverEmail) {
+        RideRequest ride = new RideRequest();
+        ride.setOriginCity("Hyderabad");
+        ride.setOrigin("Gachibowli, Hyderabad");
+        ride.setDestinationCity("Nellore");
+        ride.setDestination("Nellore Bus Stand, Nellore");
+        ride.setRideType("OFFERED");
+        ride.setTravelDateTime(LocalDateTime.now().plusDays(1));
+        ride.setVehicleCapacity(CAPACITY);
+        ride.setRequester(createEmployee(driverEmail));
+        return rideRequestRepository.save(ride);
+    }
+}